@@ -0,0 +1,83 @@
+package me.senseiwells.benchmark;
+
+import me.senseiwells.arucas.utils.ArucasValueList;
+import me.senseiwells.arucas.utils.ArucasValueMap;
+import me.senseiwells.arucas.values.NumberValue;
+import me.senseiwells.arucas.values.StringValue;
+import me.senseiwells.arucas.values.Value;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the collections that back list and map values
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectionBenchmark {
+	/**
+	 * Appending should scale linearly, so the time per element should be the same for every size
+	 */
+	@Param({"10", "1000", "1000000"})
+	public int size;
+
+	private ArucasValueList list;
+	private ArucasValueMap map;
+	private Value<?>[] keys;
+
+	@Setup
+	public void setup() {
+		this.list = new ArucasValueList();
+		this.map = new ArucasValueMap();
+		this.keys = new Value<?>[this.size];
+		for (int i = 0; i < this.size; i++) {
+			this.keys[i] = new StringValue("key" + i);
+			this.list.add(NumberValue.of(i));
+			this.map.put(this.keys[i], NumberValue.of(i));
+		}
+	}
+
+	@Benchmark
+	public ArucasValueList listAppend() {
+		ArucasValueList list = new ArucasValueList();
+		for (int i = 0; i < this.size; i++) {
+			list.add(NumberValue.of(i));
+		}
+		return list;
+	}
+
+	@Benchmark
+	public void listGet(Blackhole blackhole) {
+		for (int i = 0; i < this.size; i++) {
+			blackhole.consume(this.list.get(i));
+		}
+	}
+
+	@Benchmark
+	public void listIterate(Blackhole blackhole) {
+		for (Value<?> value : this.list) {
+			blackhole.consume(value);
+		}
+	}
+
+	@Benchmark
+	public ArucasValueMap mapPut() {
+		ArucasValueMap map = new ArucasValueMap();
+		for (Value<?> key : this.keys) {
+			map.put(key, key);
+		}
+		return map;
+	}
+
+	@Benchmark
+	public void mapGet(Blackhole blackhole) {
+		for (Value<?> key : this.keys) {
+			blackhole.consume(this.map.get(key));
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package me.senseiwells.benchmark;
+
+import me.senseiwells.arucas.core.Lexer;
+import me.senseiwells.arucas.core.Parser;
+import me.senseiwells.arucas.core.Program;
+import me.senseiwells.arucas.core.ProgramReader;
+import me.senseiwells.arucas.throwables.CodeError;
+import me.senseiwells.arucas.tokens.Token;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning source code into a program, lexing and parsing are measured separately
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrontEndBenchmark {
+	private static final String CHUNK = """
+		// Comments are skipped by the lexer
+		fun fib(n) {
+			if (n < 2) {
+				return n;
+			}
+			return fib(n - 1) + fib(n - 2);
+		}
+		class Point {
+			var x = 0;
+			var y = 0;
+			Point(x, y) {
+				this.x = x;
+				this.y = y;
+			}
+			fun length() {
+				return (this.x ^ 2 + this.y ^ 2) ^ 0.5;
+			}
+		}
+		list = [1, 2.5, 'string', "other", true, null];
+		map = { 'key' : 'value', 1 : fib(10) };
+		foreach (item : list) {
+			point = new Point(fib(5), 3);
+			total = point.length() * 2;
+		}
+		""";
+
+	@Param({"1", "100"})
+	public int repeats;
+
+	private String source;
+	private List<Token> tokens;
+	private byte[] compiled;
+
+	@Setup
+	public void setup() throws CodeError, IOException {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < this.repeats; i++) {
+			// Functions and classes cannot be declared twice, so each copy is renamed
+			builder.append(CHUNK.replace("fib", "fib" + i).replace("Point", "Point" + i));
+		}
+		this.source = builder.toString();
+		this.tokens = new Lexer(this.source, "benchmark").createTokens();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new Parser(this.tokens).parse().write(out);
+		this.compiled = out.toByteArray();
+	}
+
+	@Benchmark
+	public List<Token> lex() throws CodeError {
+		return new Lexer(this.source, "benchmark").createTokens();
+	}
+
+	@Benchmark
+	public Program parse() throws CodeError {
+		return new Parser(this.tokens).parse();
+	}
+
+	/**
+	 * Lexes while parsing, with the gc profiler this shows the tokens are not all kept alive
+	 */
+	@Benchmark
+	public Program lexAndParse() throws CodeError {
+		return new Parser(new Lexer(this.source, "benchmark")).parse();
+	}
+
+	/**
+	 * Loads the same program from its compiled form, this is what a cold start costs without the source
+	 */
+	@Benchmark
+	public Program load() throws IOException {
+		return new ProgramReader(ByteBuffer.wrap(this.compiled)).read();
+	}
+}
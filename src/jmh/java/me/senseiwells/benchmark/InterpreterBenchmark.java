@@ -0,0 +1,185 @@
+package me.senseiwells.benchmark;
+
+import me.senseiwells.arucas.api.ContextBuilder;
+import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Run;
+import me.senseiwells.arucas.throwables.CodeError;
+import me.senseiwells.arucas.throwables.ThrowValue;
+import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.StackTable;
+import me.senseiwells.arucas.values.NumberValue;
+import me.senseiwells.arucas.values.Value;
+import me.senseiwells.arucas.values.classes.AbstractClassDefinition;
+import me.senseiwells.arucas.values.functions.FunctionValue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parts of the interpreter that every script goes through,
+ * the allocation rates are reported by the gc profiler set in the build.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterpreterBenchmark {
+	private static final String SETUP = """
+		fun add(a, b) {
+			return a + b;
+		}
+		fun fib(n) {
+			if (n < 2) {
+				return n;
+			}
+			return fib(n - 1) + fib(n - 2);
+		}
+		class Point {
+			var x = 0;
+			var y = 0;
+			Point(x, y) {
+				this.x = x;
+				this.y = y;
+			}
+			fun length() {
+				return (this.x ^ 2 + this.y ^ 2) ^ 0.5;
+			}
+		}
+		""";
+	private static final String LOOP = """
+		sum = 0;
+		for (i = 0; i < 10000; i = i + 1) {
+			sum = sum + i;
+		}
+		return sum;
+		""";
+	private static final String MEMBER_CALLS = """
+		point = new Point(3, 4);
+		list = [];
+		sum = 0;
+		for (i = 0; i < 1000; i = i + 1) {
+			sum = sum + point.length() + point.x;
+			list.isEmpty();
+		}
+		return sum;
+		""";
+	private static final String BLOCK_SCOPES = """
+		sum = 0;
+		for (i = 0; i < 1000; i = i + 1) {
+			if (i > 0) {
+				x = i;
+				sum = sum + x;
+			}
+		}
+		return sum;
+		""";
+
+	private Context context;
+	private StackTable deepTable;
+	private FunctionValue addFunction;
+	private FunctionValue fibFunction;
+	private AbstractClassDefinition pointDefinition;
+	private FunctionValue lengthMethod;
+
+	@Setup
+	public void setup() throws CodeError {
+		this.context = new ContextBuilder().setOutputHandler(output -> { }).addDefault().build();
+		Run.run(this.context, "setup", SETUP);
+		this.addFunction = (FunctionValue) this.context.getVariable("add");
+		this.fibFunction = (FunctionValue) this.context.getVariable("fib");
+		this.pointDefinition = this.context.getClassDefinition("Point");
+		List<Value<?>> arguments = new ArrayList<>(2);
+		arguments.add(NumberValue.of(3));
+		arguments.add(NumberValue.of(4));
+		try {
+			this.lengthMethod = this.pointDefinition.createNewDefinition(this.context, arguments, ISyntax.empty()).getMember("length", 1);
+		}
+		catch (ThrowValue throwValue) {
+			throw new IllegalStateException(throwValue);
+		}
+
+		StackTable table = new StackTable();
+		table.setLocal("root", NumberValue.of(1));
+		for (int i = 0; i < 8; i++) {
+			table = new StackTable(table, ISyntax.empty(), new String[] { "local" });
+			table.setLocal("local", NumberValue.of(i));
+		}
+		this.deepTable = table;
+	}
+
+	@Benchmark
+	public Value<?> variableAccessByName() {
+		return this.deepTable.get("root");
+	}
+
+	@Benchmark
+	public Value<?> variableAccessBySlot() {
+		return this.deepTable.get("local", 3, 0);
+	}
+
+	@Benchmark
+	public Value<?> functionCall() throws CodeError {
+		List<Value<?>> arguments = new ArrayList<>(2);
+		arguments.add(NumberValue.of(1));
+		arguments.add(NumberValue.of(2));
+		return this.addFunction.call(this.context, arguments);
+	}
+
+	/**
+	 * Every call returns through a return statement, this measures the cost of control flow
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Value<?> recursiveFibonacci() throws CodeError {
+		List<Value<?>> arguments = new ArrayList<>(1);
+		arguments.add(NumberValue.of(25));
+		return this.fibFunction.call(this.context, arguments);
+	}
+
+	/**
+	 * The receiver is put in the first slot of the frame, the argument list is not changed
+	 */
+	@Benchmark
+	public Value<?> methodCall() throws CodeError {
+		return this.lengthMethod.call(this.context, new ArrayList<>(0));
+	}
+
+	@Benchmark
+	public Value<?> classInstantiation() throws CodeError, ThrowValue {
+		List<Value<?>> arguments = new ArrayList<>(2);
+		arguments.add(NumberValue.of(3));
+		arguments.add(NumberValue.of(4));
+		return this.pointDefinition.createNewDefinition(this.context, arguments, ISyntax.empty());
+	}
+
+	/**
+	 * Numbers below the cached range are not allocated, so most of the allocation here is the interpreter's own
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Value<?> numberLoop() throws CodeError {
+		return Run.runCached(this.context, "loop", LOOP);
+	}
+
+	/**
+	 * Member calls and accesses on the same types, these are served by the inline caches
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Value<?> memberCalls() throws CodeError {
+		return Run.runCached(this.context, "members", MEMBER_CALLS);
+	}
+
+	/**
+	 * Every iteration pushes a scope for the loop and the if body, run with the gc profiler to see their allocation
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Value<?> blockScopes() throws CodeError {
+		return Run.runCached(this.context, "scopes", BLOCK_SCOPES);
+	}
+}
@@ -0,0 +1,70 @@
+package me.senseiwells.benchmark;
+
+import me.senseiwells.arucas.api.ContextBuilder;
+import me.senseiwells.arucas.core.Run;
+import me.senseiwells.arucas.throwables.CodeError;
+import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.values.Value;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures number arithmetic in script loops, each operation is one iteration of the loop
+ * so gc.alloc.rate.norm from the gc profiler is the number of bytes allocated per iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumberBenchmark {
+	private static final int ITERATIONS = 100_000;
+	/**
+	 * The loops are nested so the counters stay in the range of cached numbers
+	 */
+	private static final String SUM = """
+		sum = 0;
+		for (i = 0; i < 100; i = i + 1) {
+			for (j = 0; j < 1000; j = j + 1) {
+				sum = sum + j;
+			}
+		}
+		return sum;
+		""";
+	private static final String SMALL_NUMBERS = """
+		x = 0;
+		for (i = 0; i < 100; i = i + 1) {
+			for (j = 0; j < 1000; j = j + 1) {
+				x = (x + 3) * 2 - x - 6;
+			}
+		}
+		return x;
+		""";
+
+	private Context context;
+
+	@Setup
+	public void setup() {
+		this.context = new ContextBuilder().setOutputHandler(output -> { }).addDefault().build();
+	}
+
+	/**
+	 * The sum soon leaves the range of cached numbers, so every iteration allocates one number and its boxed value
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ITERATIONS)
+	public Value<?> sumLoop() throws CodeError {
+		return Run.runCached(this.context, "sum", SUM);
+	}
+
+	/**
+	 * Every intermediate result is a small whole number, so no numbers are allocated
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ITERATIONS)
+	public Value<?> smallNumberLoop() throws CodeError {
+		return Run.runCached(this.context, "small", SMALL_NUMBERS);
+	}
+}
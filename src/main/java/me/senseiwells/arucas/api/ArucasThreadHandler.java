@@ -1,19 +1,40 @@
 package me.senseiwells.arucas.api;
 
+import me.senseiwells.arucas.api.impl.ArucasExecutor;
 import me.senseiwells.arucas.core.Run;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowStop;
 import me.senseiwells.arucas.throwables.ThrowValue;
+import me.senseiwells.arucas.utils.ArucasTask;
 import me.senseiwells.arucas.utils.Context;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+/**
+ * Runs a script and the threads it starts, each handler runs one script at a time
+ * so hosts that run scripts in parallel should create a handler for each of them.
+ * Handlers share the default executor unless they are given their own.
+ */
 @SuppressWarnings({"UnusedReturnValue", "unused"})
 public class ArucasThreadHandler {
+	private static final IArucasExecutor DEFAULT_EXECUTOR = ArucasExecutor.createDefault();
+
+	/**
+	 * The shared handler, for hosts that only run one script at a time
+	 */
 	public static ArucasThreadHandler instance = new ArucasThreadHandler();
 
-	private final ThreadGroup arucasThreadGroup = new ThreadGroup("Arucas Thread Group");
+	/**
+	 * Tasks remove themselves when they finish or are cancelled
+	 */
+	private final Map<Long, ArucasTask> runningTasks = new ConcurrentHashMap<>();
+	private final AtomicLong nextTaskId = new AtomicLong();
 
+	private IArucasExecutor executor;
 	private Consumer<String> stopErrorHandler;
 	private Consumer<String> errorHandler;
 	private TriConsumer<Context, Throwable, String> fatalErrorHandler;
@@ -22,11 +43,13 @@ public class ArucasThreadHandler {
 	private Context currentContext;
 	private boolean hasErrored;
 
-	private ArucasThreadHandler() {
-		this.stopErrorHandler = this.errorHandler;
+	public ArucasThreadHandler() {
 		this.errorHandler = System.out::println;
+		// Stops are reported to the error handler unless they are given their own handler
+		this.stopErrorHandler = message -> this.errorHandler.accept(message);
 		this.fatalErrorHandler = (c, t, s) -> t.printStackTrace();
 		this.finalHandler = () -> { };
+		this.executor = DEFAULT_EXECUTOR;
 		this.currentContext = null;
 		this.hasErrored = false;
 	}
@@ -51,59 +74,95 @@ public class ArucasThreadHandler {
 		return this;
 	}
 
+	/**
+	 * Sets the executor that tasks are run on, the previous executor
+	 * is not shut down because it may be shared with other handlers
+	 */
+	public synchronized ArucasThreadHandler setExecutor(IArucasExecutor executor) {
+		this.executor = executor;
+		return this;
+	}
+
 	public synchronized void stop() {
 		if (this.isRunning()) {
 			this.currentContext = null;
-			this.arucasThreadGroup.interrupt();
+			for (ArucasTask task : this.runningTasks.values()) {
+				task.cancel();
+			}
 			this.finalHandler.run();
 		}
 	}
 
 	private boolean isRunning() {
-		return this.arucasThreadGroup.activeCount() > 0 && this.currentContext != null;
+		return !this.runningTasks.isEmpty() && this.currentContext != null;
+	}
+
+	/**
+	 * Returns the task with the id if it has not finished
+	 */
+	public ArucasTask getTask(long id) {
+		return this.runningTasks.get(id);
 	}
 
-	public synchronized Thread runOnThread(Context context, String fileName, String fileContent) {
+	/**
+	 * Returns true if a task with this id was ever started
+	 */
+	public boolean hasStartedTask(long id) {
+		return id >= 0 && id < this.nextTaskId.get();
+	}
+
+	/**
+	 * Returns null if a script is already running.
+	 * @throws RejectedExecutionException if the executor has no thread to run the script on
+	 */
+	public synchronized ArucasTask runOnThread(Context context, String fileName, String fileContent) {
 		if (this.isRunning()) {
 			return null;
 		}
 		this.hasErrored = false;
 		this.currentContext = context;
-		Thread thread = new Thread(this.arucasThreadGroup, () -> {
-			try {
-				Run.run(context, fileName, fileContent);
-			}
-			catch (ThrowStop stop) {
-				this.stopErrorHandler.accept(stop.toString(context));
-			}
-			catch (CodeError codeError) {
-				this.tryError(context, codeError);
-			}
-			catch (Throwable t) {
-				this.fatalErrorHandler.accept(context, t, fileContent);
-			}
-			finally {
-				this.stop();
-			}
-		});
-		thread.setDaemon(true);
-		thread.start();
-		return thread;
+		context.setThreadHandler(this);
+		try {
+			return this.submit(() -> {
+				try {
+					Run.run(context, fileName, fileContent);
+				}
+				catch (ThrowStop stop) {
+					this.stopErrorHandler.accept(stop.toString(context));
+				}
+				catch (CodeError codeError) {
+					this.tryError(context, codeError);
+				}
+				catch (Throwable t) {
+					this.fatalErrorHandler.accept(context, t, fileContent);
+				}
+				finally {
+					this.stop();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			this.currentContext = null;
+			throw e;
+		}
 	}
 
-	public synchronized Thread runAsyncFunctionInContext(Context context, ThrowableConsumer<Context> consumer) {
+	public synchronized ArucasTask runAsyncFunctionInContext(Context context, ThrowableConsumer<Context> consumer) {
 		return this.runAsyncFunction(context, consumer);
 	}
 
-	public synchronized Thread runBranchAsyncFunction(ThrowableConsumer<Context> consumer) {
+	public synchronized ArucasTask runBranchAsyncFunction(ThrowableConsumer<Context> consumer) {
+		if (!this.isRunning()) {
+			return null;
+		}
 		return this.runAsyncFunctionInContext(this.currentContext.createBranch(), consumer);
 	}
 
-	private synchronized Thread runAsyncFunction(final Context context, ThrowableConsumer<Context> consumer) {
+	private synchronized ArucasTask runAsyncFunction(final Context context, ThrowableConsumer<Context> consumer) {
 		if (!this.isRunning()) {
 			return null;
 		}
-		Thread thread = new Thread(this.arucasThreadGroup, () -> {
+		return this.submit(() -> {
 			try {
 				consumer.accept(context);
 				return;
@@ -118,10 +177,24 @@ public class ArucasThreadHandler {
 				this.fatalErrorHandler.accept(context, t, "");
 			}
 			this.stop();
-		}, "Arucas Runnable Thread");
-		thread.setDaemon(true);
-		thread.start();
-		return thread;
+		});
+	}
+
+	/**
+	 * @throws RejectedExecutionException if the executor cannot run the task
+	 */
+	private ArucasTask submit(Runnable runnable) {
+		ArucasTask task = new ArucasTask(this.nextTaskId.getAndIncrement(), runnable, done -> this.runningTasks.remove(done.getId()));
+		// The task must be registered before it can finish and remove itself
+		this.runningTasks.put(task.getId(), task);
+		try {
+			this.executor.execute(task.getRunnable());
+		}
+		catch (RejectedExecutionException e) {
+			this.runningTasks.remove(task.getId());
+			throw e;
+		}
+		return task;
 	}
 
 	private synchronized void tryError(Context context, CodeError error) {
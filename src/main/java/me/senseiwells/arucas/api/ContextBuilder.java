@@ -3,6 +3,8 @@ package me.senseiwells.arucas.api;
 import me.senseiwells.arucas.api.impl.ArucasOutput;
 import me.senseiwells.arucas.extensions.*;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.Metrics;
+import me.senseiwells.arucas.utils.Profiler;
 import me.senseiwells.arucas.values.*;
 import me.senseiwells.arucas.values.classes.AbstractClassDefinition;
 
@@ -18,6 +20,10 @@ public class ContextBuilder {
 	private final List<Supplier<IArucasExtension>> extensions = new ArrayList<>();
 	private final List<Supplier<ArucasClassExtension>> classes = new ArrayList<>();
 	private Consumer<String> outputHandler = System.out::print;
+	private IArucasStepHandler stepHandler;
+	private long stepBudget;
+	private Profiler profiler;
+	private Metrics metrics;
 	private boolean suppressDeprecated;
 	private String displayName = "";
 	
@@ -33,6 +39,36 @@ public class ContextBuilder {
 		return this;
 	}
 
+	/**
+	 * Limits how many steps the script can take before
+	 * the handler is asked for more, see {@link Context#setStepBudget}
+	 */
+	public ContextBuilder setStepBudget(long steps, IArucasStepHandler stepHandler) {
+		this.stepBudget = steps;
+		this.stepHandler = stepHandler;
+		return this;
+	}
+
+	public ContextBuilder setStepBudget(long steps) {
+		return this.setStepBudget(steps, null);
+	}
+
+	/**
+	 * Records the calls and lines the script runs, see {@link Profiler}
+	 */
+	public ContextBuilder setProfiler(Profiler profiler) {
+		this.profiler = profiler;
+		return this;
+	}
+
+	/**
+	 * Counts what the script does, see {@link Metrics}
+	 */
+	public ContextBuilder setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+		return this;
+	}
+
 	public ContextBuilder setOutputHandler(Consumer<String> outputHandler) {
 		this.outputHandler = outputHandler;
 		return this;
@@ -105,6 +141,9 @@ public class ContextBuilder {
 		
 		Context context = new Context(this.displayName, extensionList, classDefinitions, arucasOutput);
 		context.setSuppressDeprecated(this.suppressDeprecated);
+		context.setStepBudget(this.stepBudget, this.stepHandler);
+		context.setProfiler(this.profiler);
+		context.setMetrics(this.metrics);
 		return context;
 	}
 }
@@ -0,0 +1,19 @@
+package me.senseiwells.arucas.api;
+
+/**
+ * Runs the threads that scripts start, the implementation
+ * decides what kind of thread each task is run on
+ */
+public interface IArucasExecutor {
+	/**
+	 * Runs the task on another thread, this should not block.
+	 * @throws java.util.concurrent.RejectedExecutionException if the task cannot be run, like when every thread is busy
+	 */
+	void execute(Runnable task);
+
+	/**
+	 * Stops accepting new tasks, this is never called by the handlers
+	 * themselves since one executor may be shared between them
+	 */
+	default void shutdown() { }
+}
@@ -0,0 +1,30 @@
+package me.senseiwells.arucas.api;
+
+import javax.management.MXBean;
+import java.util.Map;
+
+/**
+ * The interpreter counters that are published through JMX
+ */
+@MXBean
+public interface IArucasMetrics {
+	long getFunctionCalls();
+
+	long getScopePushes();
+
+	long getRuntimeErrors();
+
+	long getThreadsStarted();
+
+	long getCacheHits();
+
+	long getCacheMisses();
+
+	long getRuns();
+
+	long getLexNanos();
+
+	long getParseNanos();
+
+	Map<String, Long> getValuesAllocated();
+}
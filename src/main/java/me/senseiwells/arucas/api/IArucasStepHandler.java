@@ -0,0 +1,18 @@
+package me.senseiwells.arucas.api;
+
+import me.senseiwells.arucas.utils.Context;
+
+/**
+ * Decides what happens when a context has used its step budget.
+ * This is called on the thread that ran out of steps, so a host that time
+ * slices scripts can pause it here until the script gets another turn. The
+ * budget is shared by the threads of a script, so this is called by one at a time.
+ */
+@FunctionalInterface
+public interface IArucasStepHandler {
+	/**
+	 * Returns how many more steps the script may take,
+	 * if this is not positive the script is stopped with an error
+	 */
+	long onBudgetUsed(Context context);
+}
@@ -0,0 +1,74 @@
+package me.senseiwells.arucas.api.impl;
+
+import me.senseiwells.arucas.api.IArucasExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ArucasExecutor implements IArucasExecutor {
+	/**
+	 * The most platform threads the default executor runs at once
+	 */
+	public static final int DEFAULT_PLATFORM_THREADS = 256;
+
+	private final ExecutorService executorService;
+
+	public ArucasExecutor(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Uses virtual threads if the JDK has them, otherwise a pool of
+	 * at most {@link #DEFAULT_PLATFORM_THREADS} platform threads
+	 */
+	public static ArucasExecutor createDefault() {
+		ArucasExecutor executor = createVirtual();
+		return executor != null ? executor : createPlatform(DEFAULT_PLATFORM_THREADS);
+	}
+
+	/**
+	 * Returns an executor that starts a virtual thread per task, or null if they are not available.
+	 * This is looked up reflectively because we still compile against older JDKs
+	 */
+	public static ArucasExecutor createVirtual() {
+		try {
+			Object executorService = Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			return new ArucasExecutor((ExecutorService) executorService);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns an executor of at most maxThreads daemon threads. Tasks are never queued,
+	 * since a queued task could wait forever for a task that is waiting for it, so a task
+	 * that is given to a full executor is rejected with a {@link java.util.concurrent.RejectedExecutionException}.
+	 * Threads are reused and are stopped once they have been idle for 30 seconds
+	 */
+	public static ArucasExecutor createPlatform(int maxThreads) {
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory factory = runnable -> {
+			Thread thread = new Thread(runnable, "Arucas Runnable Thread " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(0, maxThreads, 30, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
+		return new ArucasExecutor(executor);
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		this.executorService.execute(task);
+	}
+
+	@Override
+	public void shutdown() {
+		this.executorService.shutdown();
+	}
+}
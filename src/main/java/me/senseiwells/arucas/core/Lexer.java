@@ -2,6 +2,7 @@ package me.senseiwells.arucas.core;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import me.senseiwells.arucas.api.ISyntax;
 import me.senseiwells.arucas.utils.Position;
@@ -9,152 +10,289 @@ import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.tokens.Token.Type;
 
+/**
+ * Single pass lexer, every character of the input is looked at a constant number of times.
+ * When two tokens could match the longest one is used, words that are keywords are never identifiers.
+ */
 public class Lexer {
-	private static final LexerContext LEXER;
-	
-	static {
-		LEXER = new LexerContext()
-			// Whitespaces
-			.addRule(Type.WHITESPACE, i -> i
-				.addMultiline("/*", "*/")
-				.addRegex("//[^\\r\\n]*")
-				.addRegex("[ \t\r\n]")
-			)
-			
-			// Arithmetics
-			.addRule(Type.PLUS, i -> i.addString("+"))
-			.addRule(Type.MINUS, i -> i.addString("-"))
-			.addRule(Type.MULTIPLY, i -> i.addString("*"))
-			.addRule(Type.DIVIDE, i -> i.addString("/"))
-			.addRule(Type.POWER, i -> i.addString("^"))
-			
-			// Atoms
-			.addRule(Type.IDENTIFIER, i -> i.addRegex("[a-zA-Z_][a-zA-Z0-9_]*"))
-			.addRule(Type.BOOLEAN, i -> i.addStrings("true", "false"))
-			.addRule(Type.STRING, i -> i
-				.addMultiline("\"", "\\", "\"")
-				.addMultiline("'", "\\", "'")
-			)
-			.addRule(Type.NUMBER, i -> i.addRegexes(
-				"[0-9]+[.][0-9]+",
-				"[0-9]+"
-			))
-			.addRule(Type.NULL, i -> i.addStrings("null"))
-
-			// Comparisons - This must be defined AFTER identifiers
-			.addRule(Type.EQUALS, i -> i.addString("=="))
-			.addRule(Type.NOT_EQUALS, i -> i.addString("!="))
-			.addRule(Type.LESS_THAN_EQUAL, i -> i.addString("<="))
-			.addRule(Type.MORE_THAN_EQUAL, i -> i.addString(">="))
-			.addRule(Type.LESS_THAN, i -> i.addString("<"))
-			.addRule(Type.MORE_THAN, i -> i.addString(">"))
-			.addRule(Type.NOT, i -> i.addStrings("!", "not"))
-			.addRule(Type.AND, i -> i.addStrings("&&", "and"))
-			.addRule(Type.OR, i -> i.addStrings("||", "or"))
-			
-			// Memory operations
-			.addRule(Type.ASSIGN_OPERATOR, i -> i.addString("="))
-			.addRule(Type.INCREMENT, i -> i.addString("++"))
-			.addRule(Type.DECREMENT, i -> i.addString("--"))
-			
-			// Brackets
-			.addRule(Type.LEFT_BRACKET, i -> i.addString("("))
-			.addRule(Type.RIGHT_BRACKET, i -> i.addString(")"))
-			.addRule(Type.LEFT_SQUARE_BRACKET, i -> i.addString("["))
-			.addRule(Type.RIGHT_SQUARE_BRACKET, i -> i.addString("]"))
-			.addRule(Type.LEFT_CURLY_BRACKET, i -> i.addString("{"))
-			.addRule(Type.RIGHT_CURLY_BRACKET, i -> i.addString("}"))
-			
-			// Delimiters
-			.addRule(Type.SEMICOLON, i -> i.addString(";"))
-			.addRule(Type.COLON, i -> i.addString(":"))
-			.addRule(Type.COMMA, i -> i.addString(","))
-			
-			// Keywords
-			.addRule(Type.IF, i -> i.addString("if"))
-			.addRule(Type.ELSE, i -> i.addString("else"))
-			.addRule(Type.WHILE, i -> i.addString("while"))
-			.addRule(Type.CONTINUE, i -> i.addString("continue"))
-			.addRule(Type.BREAK, i -> i.addString("break"))
-			.addRule(Type.RETURN, i -> i.addString("return"))
-			.addRule(Type.VAR, i -> i.addString("var"))
-			.addRule(Type.FUN, i -> i.addString("fun"))
-			.addRule(Type.TRY, i -> i.addString("try"))
-			.addRule(Type.CATCH, i -> i.addString("catch"))
-			.addRule(Type.FOREACH, i -> i.addString("foreach"))
-			.addRule(Type.FOR, i -> i.addString("for"))
-			.addRule(Type.SWITCH, i -> i.addString("switch"))
-			.addRule(Type.CASE, i -> i.addString("case"))
-			.addRule(Type.DEFAULT, i -> i.addString("default"))
-			.addRule(Type.CLASS, i -> i.addString("class"))
-			.addRule(Type.THIS, i -> i.addString("this"))
-			.addRule(Type.NEW, i -> i.addString("new"))
-			.addRule(Type.STATIC, i -> i.addString("static"))
-			.addRule(Type.OPERATOR, i -> i.addString("operator"))
-
-			// Dot operator
-			.addRule(Type.DOT, i -> i.addString("."))
-			.addRule(Type.POINTER, i -> i.addString("->"))
-		;
-	}
-	
+	private static final Map<String, Type> KEYWORDS = Map.ofEntries(
+		Map.entry("true", Type.BOOLEAN),
+		Map.entry("false", Type.BOOLEAN),
+		Map.entry("null", Type.NULL),
+		Map.entry("not", Type.NOT),
+		Map.entry("and", Type.AND),
+		Map.entry("or", Type.OR),
+		Map.entry("if", Type.IF),
+		Map.entry("else", Type.ELSE),
+		Map.entry("while", Type.WHILE),
+		Map.entry("continue", Type.CONTINUE),
+		Map.entry("break", Type.BREAK),
+		Map.entry("return", Type.RETURN),
+		Map.entry("var", Type.VAR),
+		Map.entry("fun", Type.FUN),
+		Map.entry("try", Type.TRY),
+		Map.entry("catch", Type.CATCH),
+		Map.entry("foreach", Type.FOREACH),
+		Map.entry("for", Type.FOR),
+		Map.entry("switch", Type.SWITCH),
+		Map.entry("case", Type.CASE),
+		Map.entry("default", Type.DEFAULT),
+		Map.entry("class", Type.CLASS),
+		Map.entry("this", Type.THIS),
+		Map.entry("new", Type.NEW),
+		Map.entry("static", Type.STATIC),
+		Map.entry("operator", Type.OPERATOR)
+	);
+
 	private final String text;
 	private final String fileName;
+	private int offset;
+	private int line;
+	private int column;
+	private boolean finished;
 
 	public Lexer(String text, String fileName) {
 		this.text = text;
 		this.fileName = fileName;
 	}
-	
+
 	public List<Token> createTokens() throws CodeError {
 		List<Token> tokenList = new ArrayList<>();
-		int offset = 0;
-		int line = 0;
-		int column = 0;
+		this.offset = 0;
+		this.line = 0;
+		this.column = 0;
+		this.finished = false;
+
+		Token token;
+		while ((token = this.nextToken()) != null) {
+			tokenList.add(token);
+		}
+		return tokenList;
+	}
+
+	/**
+	 * Returns the token after the last one that was returned, the last
+	 * token is always a finish token and after that this returns null.
+	 */
+	public Token nextToken() throws CodeError {
 		int length = this.text.length();
-		String input = this.text;
-		
-		while (offset < length) {
-			LexerContext.LexerToken lexerToken = LEXER.nextToken(input);
-			
-			if (lexerToken == null) {
-				throw new CodeError(CodeError.ErrorType.ILLEGAL_CHAR_ERROR, "Invalid character", ISyntax.of(new Position(offset, line, column, this.fileName)));
-			}
-			
-			if (lexerToken.length + offset > length) {
-				break;
+
+		while (this.offset < length) {
+			int start = this.offset;
+			Type type = this.nextType(start);
+			int end = this.offset;
+			this.offset = start;
+
+			if (type == null) {
+				throw new CodeError(CodeError.ErrorType.ILLEGAL_CHAR_ERROR, "Invalid character", ISyntax.of(this.getPosition()));
+			}
+
+			Position startPos = this.getPosition();
+			this.advanceTo(end);
+
+			if (type != Type.WHITESPACE) {
+				return new Token(type, this.text.substring(start, end), startPos, this.getPosition());
+			}
+		}
+
+		if (this.finished) {
+			return null;
+		}
+		this.finished = true;
+		return new Token(Type.FINISH, ISyntax.of(this.getPosition()));
+	}
+
+	/**
+	 * Finds the type of the token starting at index, the
+	 * offset is moved to the end of the token, or null if
+	 * there is no token that starts with this character.
+	 */
+	private Type nextType(int index) {
+		char current = this.text.charAt(index);
+		this.offset = index + 1;
+
+		switch (current) {
+			case ' ', '\t', '\r', '\n' -> {
+				return Type.WHITESPACE;
 			}
-			
-			int old_offset = offset;
-			int old_line = line;
-			int old_column = column;
-			
-			for (int i = offset; i < offset + lexerToken.length; i++) {
-				char c = this.text.charAt(i);
-				
-				if (c == '\n') {
-					line ++;
-					column = 0;
+			case '/' -> {
+				if (this.peek(index + 1) == '/') {
+					this.offset = this.skipLine(index + 2);
+					return Type.WHITESPACE;
 				}
-				else {
-					column ++;
+				if (this.peek(index + 1) == '*') {
+					int close = this.text.indexOf("*/", index + 2);
+					if (close != -1) {
+						this.offset = close + 2;
+						return Type.WHITESPACE;
+					}
 				}
+				return Type.DIVIDE;
+			}
+			case '"', '\'' -> {
+				return this.readString(index, current) ? Type.STRING : null;
+			}
+			case '+' -> {
+				return this.match(index + 1, '+') ? Type.INCREMENT : Type.PLUS;
+			}
+			case '-' -> {
+				if (this.match(index + 1, '-')) {
+					return Type.DECREMENT;
+				}
+				return this.match(index + 1, '>') ? Type.POINTER : Type.MINUS;
+			}
+			case '*' -> {
+				return Type.MULTIPLY;
+			}
+			case '^' -> {
+				return Type.POWER;
+			}
+			case '=' -> {
+				return this.match(index + 1, '=') ? Type.EQUALS : Type.ASSIGN_OPERATOR;
+			}
+			case '!' -> {
+				return this.match(index + 1, '=') ? Type.NOT_EQUALS : Type.NOT;
+			}
+			case '<' -> {
+				return this.match(index + 1, '=') ? Type.LESS_THAN_EQUAL : Type.LESS_THAN;
+			}
+			case '>' -> {
+				return this.match(index + 1, '=') ? Type.MORE_THAN_EQUAL : Type.MORE_THAN;
+			}
+			case '&' -> {
+				return this.match(index + 1, '&') ? Type.AND : null;
+			}
+			case '|' -> {
+				return this.match(index + 1, '|') ? Type.OR : null;
+			}
+			case '(' -> {
+				return Type.LEFT_BRACKET;
+			}
+			case ')' -> {
+				return Type.RIGHT_BRACKET;
+			}
+			case '[' -> {
+				return Type.LEFT_SQUARE_BRACKET;
+			}
+			case ']' -> {
+				return Type.RIGHT_SQUARE_BRACKET;
+			}
+			case '{' -> {
+				return Type.LEFT_CURLY_BRACKET;
+			}
+			case '}' -> {
+				return Type.RIGHT_CURLY_BRACKET;
+			}
+			case ';' -> {
+				return Type.SEMICOLON;
+			}
+			case ':' -> {
+				return Type.COLON;
+			}
+			case ',' -> {
+				return Type.COMMA;
+			}
+			case '.' -> {
+				return Type.DOT;
 			}
-			
-			if (lexerToken.type != Type.WHITESPACE) {
-				tokenList.add(new Token(
-					lexerToken.type,
-					lexerToken.content,
-					new Position(old_offset, old_line, old_column, this.fileName),
-					new Position(offset, line, column, this.fileName)
-				));
-			}
-			
-			input = input.substring(lexerToken.length);
-			offset += lexerToken.length;
 		}
-	
-		tokenList.add(new Token(Type.FINISH, ISyntax.of(new Position(offset, line, column, this.fileName))));
-		return tokenList;
+
+		if (isDigit(current)) {
+			this.offset = this.skipDigits(index + 1);
+			if (this.peek(this.offset) == '.' && isDigit(this.peek(this.offset + 1))) {
+				this.offset = this.skipDigits(this.offset + 2);
+			}
+			return Type.NUMBER;
+		}
+
+		if (isIdentifierStart(current)) {
+			int end = index + 1;
+			while (isIdentifierPart(this.peek(end))) {
+				end++;
+			}
+			this.offset = end;
+			return KEYWORDS.getOrDefault(this.text.substring(index, end), Type.IDENTIFIER);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Strings may contain any character, a backslash
+	 * always escapes the character that follows it.
+	 */
+	private boolean readString(int index, char quote) {
+		int length = this.text.length();
+		for (int i = index + 1; i < length; i++) {
+			char c = this.text.charAt(i);
+			if (c == '\\') {
+				i++;
+			}
+			else if (c == quote) {
+				this.offset = i + 1;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int skipLine(int index) {
+		int length = this.text.length();
+		while (index < length) {
+			char c = this.text.charAt(index);
+			if (c == '\r' || c == '\n') {
+				break;
+			}
+			index++;
+		}
+		return index;
+	}
+
+	private int skipDigits(int index) {
+		while (isDigit(this.peek(index))) {
+			index++;
+		}
+		return index;
+	}
+
+	private boolean match(int index, char expected) {
+		if (this.peek(index) == expected) {
+			this.offset = index + 1;
+			return true;
+		}
+		return false;
+	}
+
+	private char peek(int index) {
+		return index < this.text.length() ? this.text.charAt(index) : '\0';
+	}
+
+	private void advanceTo(int end) {
+		for (int i = this.offset; i < end; i++) {
+			if (this.text.charAt(i) == '\n') {
+				this.line++;
+				this.column = 0;
+			}
+			else {
+				this.column++;
+			}
+		}
+		this.offset = end;
+	}
+
+	private Position getPosition() {
+		return new Position(this.offset, this.line, this.column, this.fileName);
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isIdentifierStart(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+	}
+
+	private static boolean isIdentifierPart(char c) {
+		return isIdentifierStart(c) || isDigit(c);
 	}
 }
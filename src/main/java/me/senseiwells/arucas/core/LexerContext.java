@@ -9,6 +9,11 @@ import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * The rules of the regex lexer that {@link Lexer} used before it scanned the input itself.
+ * @deprecated {@link Lexer} no longer uses these rules, this will be removed in the next release
+ */
+@Deprecated(forRemoval = true)
 public class LexerContext {
 	private final List<LexerRule> rules;
 	
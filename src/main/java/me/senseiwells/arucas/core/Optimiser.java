@@ -0,0 +1,30 @@
+package me.senseiwells.arucas.core;
+
+import me.senseiwells.arucas.nodes.Node;
+
+import java.util.List;
+
+/**
+ * The optimiser walks a parsed tree before it is resolved and replaces nodes with
+ * simpler ones that do the same thing. Operations on literals are folded into a
+ * single constant, branches that can never run are removed and scopes that
+ * declare nothing do not push a table at runtime.
+ * <p>
+ * Anything that could behave differently at runtime, like an operation
+ * that would throw an error, is left as it is.
+ */
+public class Optimiser {
+	/**
+	 * Optimises the program, the returned node should be used in place of the program node
+	 */
+	public Node optimise(Node node) {
+		return node.optimise(this);
+	}
+
+	/**
+	 * Replaces every node in the list with its optimised node
+	 */
+	public void optimiseAll(List<Node> nodes) {
+		nodes.replaceAll(node -> node.optimise(this));
+	}
+}
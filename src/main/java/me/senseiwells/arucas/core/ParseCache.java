@@ -0,0 +1,119 @@
+package me.senseiwells.arucas.core;
+
+import me.senseiwells.arucas.throwables.CodeError;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of parsed programs, when the cache is full the least recently used program is removed.
+ * <p>
+ * Programs are keyed by their file name and a SHA-256 digest of their content, so the
+ * cache does not keep the source alive. Parsed programs do not depend on a context
+ * so the same program is shared by every context that runs it.
+ */
+public class ParseCache {
+	public static final ParseCache instance = new ParseCache(64);
+
+	private final Map<Key, Program> programs;
+	private final LongAdder hits;
+	private final LongAdder misses;
+
+	public ParseCache(int capacity) {
+		this.programs = new LinkedHashMap<>(16, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Program> eldest) {
+				return this.size() > capacity;
+			}
+		};
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+	}
+
+	/**
+	 * Returns the parsed program, parsing it if it is not in the cache,
+	 * the program must be linked to a context before it is run
+	 */
+	public Program parse(String fileName, String fileContent) throws CodeError {
+		Key key = new Key(fileName, fileContent);
+		synchronized (this.programs) {
+			Program program = this.programs.get(key);
+			if (program != null) {
+				this.hits.increment();
+				return program;
+			}
+		}
+		this.misses.increment();
+
+		Program program = new Parser(new Lexer(fileContent, fileName)).parse();
+		synchronized (this.programs) {
+			this.programs.put(key, program);
+		}
+		return program;
+	}
+
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	public int size() {
+		synchronized (this.programs) {
+			return this.programs.size();
+		}
+	}
+
+	public void clear() {
+		synchronized (this.programs) {
+			this.programs.clear();
+		}
+		this.hits.reset();
+		this.misses.reset();
+	}
+
+	private static class Key {
+		private final String fileName;
+		private final byte[] digest;
+		private final int hash;
+
+		private Key(String fileName, String fileContent) {
+			this.fileName = fileName;
+			this.digest = digest(fileContent);
+			this.hash = 31 * fileName.hashCode() + Arrays.hashCode(this.digest);
+		}
+
+		private static byte[] digest(String fileContent) {
+			try {
+				return MessageDigest.getInstance("SHA-256").digest(fileContent.getBytes(StandardCharsets.UTF_8));
+			}
+			catch (NoSuchAlgorithmException e) {
+				// Every Java platform must support SHA-256
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+			return object instanceof Key other
+				&& this.hash == other.hash
+				&& this.fileName.equals(other.fileName)
+				&& Arrays.equals(this.digest, other.digest);
+		}
+	}
+}
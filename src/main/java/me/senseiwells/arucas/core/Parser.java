@@ -4,47 +4,59 @@ import me.senseiwells.arucas.api.ISyntax;
 import me.senseiwells.arucas.nodes.*;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.tokens.Token;
-import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.utils.MutableSyntaxImpl;
+import me.senseiwells.arucas.utils.StackTable;
 import me.senseiwells.arucas.utils.StringUtils;
 import me.senseiwells.arucas.values.*;
-import me.senseiwells.arucas.values.classes.AbstractClassDefinition;
 import me.senseiwells.arucas.values.classes.ArucasClassDefinition;
 import me.senseiwells.arucas.values.functions.ClassMemberFunction;
 import me.senseiwells.arucas.values.functions.FunctionValue;
 import me.senseiwells.arucas.values.functions.UserDefinedFunction;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Parser {
-	private final List<Token> tokens;
-	private final Context context;
+	private final TokenStream tokens;
+	private final List<Program.Symbol> symbols;
+	private StackTable stackTable;
 	private int operatorTokenIndex;
 	private Token currentToken;
 
-	public Parser(List<Token> tokens, Context context) {
+	public Parser(List<Token> tokens) {
+		this(TokenStream.of(tokens));
+	}
+
+	/**
+	 * Tokens are lexed as they are parsed, so lexing errors are thrown by {@link #parse()}
+	 */
+	public Parser(Lexer lexer) {
+		this(new TokenStream(lexer::nextToken));
+	}
+
+	private Parser(TokenStream tokens) {
 		this.tokens = tokens;
+		this.symbols = new ArrayList<>();
+		this.stackTable = new StackTable();
 		this.operatorTokenIndex = -1;
-		this.advance();
-		this.context = context.createChildContext("Parser Context");
 	}
 
-	private void advance() {
+	private void advance() throws CodeError {
 		this.operatorTokenIndex++;
-		this.currentToken = this.operatorTokenIndex < this.tokens.size() ? this.tokens.get(this.operatorTokenIndex) : null;
+		this.currentToken = this.tokens.get(this.operatorTokenIndex);
 	}
 
-	private void recede() {
+	private void recede() throws CodeError {
 		this.operatorTokenIndex--;
-		this.currentToken = this.operatorTokenIndex < this.tokens.size() ? this.tokens.get(this.operatorTokenIndex) : null;
+		this.currentToken = this.tokens.get(this.operatorTokenIndex);
 	}
 	
-	private Token getLastToken() {
-		int index = this.operatorTokenIndex - 1;
-		return this.tokens.get(index < 0 ? 0 : (index >= this.tokens.size() ? this.tokens.size() - 1 : index));
+	private Token getLastToken() throws CodeError {
+		return this.tokens.getClamped(this.operatorTokenIndex - 1);
 	}
 
-	public Node parse() throws CodeError {
+	public Program parse() throws CodeError {
+		this.advance();
 		List<Node> statements = new ArrayList<>();
 		ISyntax startPos = this.currentToken.syntaxPosition;
 		
@@ -58,19 +70,32 @@ public class Parser {
 			statements.add(this.statement());
 		}
 		
-		return new ListNode(statements, startPos, this.currentToken.syntaxPosition);
+		Node programNode = new ListNode(statements, startPos, this.currentToken.syntaxPosition);
+		return new Program(new Resolver().resolve(new Optimiser().optimise(programNode)), this.symbols);
+	}
+
+	private void pushScope(ISyntax syntaxPosition) {
+		this.stackTable = new StackTable(this.stackTable, syntaxPosition);
+	}
+
+	private void popScope() {
+		this.stackTable = this.stackTable.getParentTable();
+	}
+
+	private void addSymbol(Program.Symbol.Type type, Token token) {
+		this.symbols.add(new Program.Symbol(type, token));
 	}
 
 	private Node statements() throws CodeError {
 		List<Node> statements = new ArrayList<>();
 		ISyntax startPos = this.currentToken.syntaxPosition;
 		
-		this.context.pushScope(this.currentToken.syntaxPosition);
+		this.pushScope(this.currentToken.syntaxPosition);
 		
 		switch (this.currentToken.type) {
 			case FINISH, SEMICOLON -> {
 				this.advance();
-				this.context.popScope();
+				this.popScope();
 				return new NullNode(this.currentToken);
 			}
 			
@@ -79,7 +104,7 @@ public class Parser {
 				
 				if (this.currentToken.type == Token.Type.RIGHT_CURLY_BRACKET) {
 					this.advance();
-					this.context.popScope();
+					this.popScope();
 					return new NullNode(this.currentToken);
 				}
 	
@@ -101,8 +126,9 @@ public class Parser {
 			default -> statements.add(this.statement());
 		}
 		
-		this.context.popScope();
-		return new ScopeNode(statements, startPos, this.currentToken.syntaxPosition);
+		boolean declaresVariables = this.stackTable.hasDeclarations();
+		this.popScope();
+		return new ScopeNode(statements, startPos, this.currentToken.syntaxPosition, declaresVariables);
 	}
 
 	private Node statement() throws CodeError {
@@ -170,7 +196,7 @@ public class Parser {
 		
 		this.throwIfNotType(Token.Type.IDENTIFIER, "Expected an identifier");
 		Token className = this.currentToken;
-		this.context.throwIfClassNameTaken(className.content, className.syntaxPosition);
+		this.addSymbol(Program.Symbol.Type.CLASS_DECLARATION, className);
 		this.advance();
 		
 		this.throwIfNotType(Token.Type.LEFT_CURLY_BRACKET, "Expected '{'");
@@ -178,10 +204,10 @@ public class Parser {
 
 		// Push the stack definition so that we can detect it from identifiers
 		ArucasClassDefinition definition = new ArucasClassDefinition(className.content);
-		this.context.addClassDefinition(definition);
+		this.stackTable.declareClassDefinition(definition);
 
 		// Push scopes to declare class body
-		this.context.pushScope(startPos);
+		this.pushScope(startPos);
 
 		
 		while (this.currentToken.type != Token.Type.RIGHT_CURLY_BRACKET) {
@@ -269,7 +295,7 @@ public class Parser {
 			}
 		}
 		
-		this.context.popScope();
+		this.popScope();
 		this.throwIfNotType(Token.Type.RIGHT_CURLY_BRACKET, "Expected '}'");
 		ISyntax endPos = this.currentToken.syntaxPosition;
 		this.advance();
@@ -287,16 +313,16 @@ public class Parser {
 		}
 		this.advance();
 
-		this.context.pushScope(this.currentToken.syntaxPosition);
+		this.pushScope(this.currentToken.syntaxPosition);
 
 		List<String> argumentNames = this.getClassMemberArguments();
 
 		MutableSyntaxImpl syntaxPosition = new MutableSyntaxImpl(startPos.getStartPos(), null);
 		ClassMemberFunction classConstructor = new ClassMemberFunction(name, argumentNames, syntaxPosition);
-		this.context.setLocal(name, classConstructor);
+		this.stackTable.setLocal(name, classConstructor);
 
 		Node statements = this.statements();
-		this.context.popScope();
+		this.popScope();
 
 		classConstructor.complete(statements);
 		syntaxPosition.end = statements.syntaxPosition.getEndPos();
@@ -316,16 +342,16 @@ public class Parser {
 		this.throwIfNotType(Token.Type.LEFT_BRACKET, "Expected '('");
 		this.advance();
 		
-		this.context.pushScope(this.currentToken.syntaxPosition);
+		this.pushScope(this.currentToken.syntaxPosition);
 		
 		List<String> argumentNames = this.getClassMemberArguments();
 		
 		MutableSyntaxImpl syntaxPosition = new MutableSyntaxImpl(startPos.getStartPos(), null);
 		ClassMemberFunction classMethod = new ClassMemberFunction(variableNameToken.content, argumentNames, syntaxPosition);
-		this.context.setLocal(variableNameToken.content, classMethod);
+		this.stackTable.setLocal(variableNameToken.content, classMethod);
 		
 		Node statements = this.statements();
-		this.context.popScope();
+		this.popScope();
 		
 		classMethod.complete(statements);
 		syntaxPosition.end = statements.syntaxPosition.getEndPos();
@@ -336,7 +362,7 @@ public class Parser {
 	private List<String> getClassMemberArguments() throws CodeError {
 		List<String> argumentNames = new ArrayList<>();
 		argumentNames.add("this");
-		this.context.setLocal("this", NullValue.NULL);
+		this.stackTable.setLocal("this", NullValue.NULL);
 
 		if (this.currentToken.type == Token.Type.IDENTIFIER) {
 			this.recede();
@@ -345,7 +371,7 @@ public class Parser {
 				this.throwIfNotType(Token.Type.IDENTIFIER, "Expected Identifier");
 
 				argumentNames.add(this.currentToken.content);
-				this.context.setLocal(this.currentToken.content, NullValue.NULL);
+				this.stackTable.setLocal(this.currentToken.content, NullValue.NULL);
 				this.advance();
 			}
 			while (this.currentToken.type == Token.Type.COMMA);
@@ -366,7 +392,7 @@ public class Parser {
 		this.throwIfNotType(Token.Type.LEFT_BRACKET, "Expected '('");
 		this.advance();
 
-		this.context.pushScope(this.currentToken.syntaxPosition);
+		this.pushScope(this.currentToken.syntaxPosition);
 
 		List<String> argumentNames = new ArrayList<>();
 		if (this.currentToken.type == Token.Type.IDENTIFIER) {
@@ -376,7 +402,7 @@ public class Parser {
 				this.throwIfNotType(Token.Type.IDENTIFIER, "Expected Identifier");
 
 				argumentNames.add(this.currentToken.content);
-				this.context.setLocal(this.currentToken.content, NullValue.NULL);
+				this.stackTable.setLocal(this.currentToken.content, NullValue.NULL);
 				this.advance();
 			}
 			while (this.currentToken.type == Token.Type.COMMA);
@@ -386,10 +412,10 @@ public class Parser {
 
 		MutableSyntaxImpl syntaxPosition = new MutableSyntaxImpl(startPos.getStartPos(), null);
 		UserDefinedFunction staticClassMethod = new UserDefinedFunction(variableNameToken.content, argumentNames, syntaxPosition);
-		this.context.setLocal(variableNameToken.content, staticClassMethod);
+		this.stackTable.setLocal(variableNameToken.content, staticClassMethod);
 
 		Node statements = this.statements();
-		this.context.popScope();
+		this.popScope();
 
 		staticClassMethod.complete(statements);
 		syntaxPosition.end = statements.syntaxPosition.getEndPos();
@@ -418,7 +444,7 @@ public class Parser {
 		this.throwIfNotType(Token.Type.LEFT_BRACKET, "Expected '('");
 		this.advance();
 
-		this.context.pushScope(this.currentToken.syntaxPosition);
+		this.pushScope(this.currentToken.syntaxPosition);
 		List<String> argumentNames = this.getClassMemberArguments();
 
 		int requiredParameters = ValueOperations.overridableOperatorTokens.get(token.type);
@@ -434,7 +460,7 @@ public class Parser {
 		ClassMemberFunction operatorMethod = new ClassMemberFunction("$%s".formatted(token.type), argumentNames, syntaxPosition);
 
 		Node statements = this.statements();
-		this.context.popScope();
+		this.popScope();
 
 		operatorMethod.complete(statements);
 		syntaxPosition.end = statements.syntaxPosition.getEndPos();
@@ -445,21 +471,21 @@ public class Parser {
 	private VariableAssignNode setVariable() throws CodeError {
 		this.throwIfNotType(Token.Type.IDENTIFIER, "Expected an identifier");
 		Token variableName = this.currentToken;
-		this.context.throwIfStackNameTaken(variableName.content, variableName.syntaxPosition);
+		this.addSymbol(Program.Symbol.Type.VARIABLE_DECLARATION, variableName);
 		
 		this.advance();
 		this.throwIfNotType(Token.Type.ASSIGN_OPERATOR, "Expected an assignment operator");
 		this.advance();
 		Node expression = this.expression();
 		
-		this.context.setVariable(variableName.content, NullValue.NULL);
+		this.stackTable.set(variableName.content, NullValue.NULL);
 		return new VariableAssignNode(variableName, expression);
 	}
 
 	private VariableAssignNode modifyVariable() throws CodeError {
 		this.throwIfNotType(Token.Type.IDENTIFIER, "Expected an identifier");
 		Token variableName = this.currentToken;
-		this.context.throwIfStackNameTaken(variableName.content, variableName.syntaxPosition);
+		this.addSymbol(Program.Symbol.Type.VARIABLE_DECLARATION, variableName);
 		
 		Node member = this.member();
 		Token operatorToken = this.currentToken;
@@ -472,7 +498,7 @@ public class Parser {
 		this.advance();
 		Node numberNode = new NumberNode(new Token(Token.Type.NUMBER, "1", operatorToken.syntaxPosition));
 		
-		this.context.setVariable(variableName.content, NullValue.NULL);
+		this.stackTable.set(variableName.content, NullValue.NULL);
 		return new VariableAssignNode(variableName,
 			new BinaryOperatorNode(member, new Token(operatorType, operatorToken.syntaxPosition), numberNode)
 		);
@@ -494,7 +520,7 @@ public class Parser {
 		);
 	}
 
-	private Node modifyStatic(Token nameToken, AbstractClassDefinition definition) throws CodeError {
+	private Node modifyStatic(Token nameToken, String className) throws CodeError {
 		Token operatorToken = this.currentToken;
 		Token.Type operatorType = switch (operatorToken.type) {
 			case INCREMENT -> Token.Type.PLUS;
@@ -505,8 +531,8 @@ public class Parser {
 		this.advance();
 		Node numberNode = new NumberNode(new Token(Token.Type.NUMBER, "1", operatorToken.syntaxPosition));
 
-		return new StaticAssignNode(nameToken, definition,
-			new BinaryOperatorNode(new StaticAccessNode(nameToken, definition), new Token(operatorType, operatorToken.syntaxPosition), numberNode)
+		return new StaticAssignNode(nameToken, className,
+			new BinaryOperatorNode(new StaticAccessNode(nameToken, className), new Token(operatorType, operatorToken.syntaxPosition), numberNode)
 		);
 	}
 
@@ -535,7 +561,7 @@ public class Parser {
 		return new WhileNode(condition, statement);
 	}
 	
-	private static int functionLambdaIndex = 1;
+	private static final AtomicInteger functionLambdaIndex = new AtomicInteger(1);
 	private Node functionDefinition(boolean isLambda) throws CodeError {
 		Token functionStartToken = this.currentToken;
 		this.advance();
@@ -544,7 +570,7 @@ public class Parser {
 		
 		if (isLambda) {
 			variableNameToken = new Token(
-				Token.Type.IDENTIFIER, "%d$lambda".formatted(functionLambdaIndex++),
+				Token.Type.IDENTIFIER, "%d$lambda".formatted(functionLambdaIndex.getAndIncrement()),
 				this.currentToken.syntaxPosition
 			);
 		}
@@ -552,14 +578,14 @@ public class Parser {
 			this.throwIfNotType(Token.Type.IDENTIFIER, "Expected function name");
 
 			variableNameToken = this.currentToken;
-			this.context.throwIfStackNameTaken(variableNameToken.content, variableNameToken.syntaxPosition);
+			this.addSymbol(Program.Symbol.Type.VARIABLE_DECLARATION, variableNameToken);
 
 			this.advance();
 		}
 		this.throwIfNotType(Token.Type.LEFT_BRACKET, "Expected 'fun (...)'");
 		this.advance();
 		
-		this.context.pushScope(this.currentToken.syntaxPosition);
+		this.pushScope(this.currentToken.syntaxPosition);
 		
 		if (this.currentToken.type == Token.Type.IDENTIFIER) {
 			this.recede();
@@ -568,7 +594,7 @@ public class Parser {
 				this.throwIfNotType(Token.Type.IDENTIFIER, "Expected Identifier");
 				
 				argumentNameTokens.add(this.currentToken.content);
-				this.context.setLocal(this.currentToken.content, NullValue.NULL);
+				this.stackTable.setLocal(this.currentToken.content, NullValue.NULL);
 				this.advance();
 			}
 			while (this.currentToken.type == Token.Type.COMMA);
@@ -577,13 +603,13 @@ public class Parser {
 		this.advance();
 		
 		FunctionNode functionNode = new FunctionNode(functionStartToken, variableNameToken, argumentNameTokens);
-		this.context.setLocal(variableNameToken.content, functionNode.getFunctionValue());
+		this.stackTable.setLocal(variableNameToken.content, functionNode.getFunctionValue());
 		
 		Node statements = this.statements();
-		this.context.popScope();
+		this.popScope();
 		
 		functionNode.complete(statements);
-		this.context.setVariable(variableNameToken.content, functionNode.getFunctionValue());
+		this.stackTable.set(variableNameToken.content, functionNode.getFunctionValue());
 		return functionNode;
 	}
 	
@@ -626,7 +652,7 @@ public class Parser {
 
 		this.throwIfNotType(Token.Type.IDENTIFIER, "Expected Identifier");
 		String errorParameterName = this.currentToken.content;
-		this.context.setLocal(errorParameterName, NullValue.NULL);
+		this.stackTable.setLocal(errorParameterName, NullValue.NULL);
 		this.advance();
 
 		this.throwIfNotType(Token.Type.RIGHT_BRACKET, "Expected ')'");
@@ -644,7 +670,7 @@ public class Parser {
 
 		this.throwIfNotType(Token.Type.IDENTIFIER, "Expected Identifier");
 		String forParameterName = this.currentToken.content;
-		this.context.setLocal(forParameterName, NullValue.NULL);
+		this.stackTable.setLocal(forParameterName, NullValue.NULL);
 		this.advance();
 
 		this.throwIfNotType(Token.Type.COLON, "Expected ':'");
@@ -751,7 +777,7 @@ public class Parser {
 				
 				Value<?> value = null;
 				switch (valueType) {
-					case NUMBER -> value = new NumberValue(Double.parseDouble(token.content));
+					case NUMBER -> value = NumberValue.of(Double.parseDouble(token.content));
 					case STRING -> {
 						try {
 							value = new StringValue(StringUtils.unescapeString(token.content.substring(1, token.content.length() - 1)));
@@ -953,8 +979,7 @@ public class Parser {
 		}
 		
 		if (member instanceof FunctionAccessNode accessNode) {
-			FunctionValue functionValue = this.context.getBuiltInFunction(accessNode.token.content, argumentNodes.size());
-			member = new DirectAccessNode(accessNode.token, functionValue);
+			member = new BuiltInFunctionNode(accessNode.token, argumentNodes.size());
 		}
 		
 		this.advance();
@@ -1004,16 +1029,16 @@ public class Parser {
 		return left;
 	}
 
-	private Node staticMember(AbstractClassDefinition classDefinition) throws CodeError {
+	private Node staticMember(Token className) throws CodeError {
 		this.advance();
 		Token name = this.currentToken;
-		this.throwIfNotType(Token.Type.IDENTIFIER, "Expected '%s.member'".formatted(classDefinition.getName()));
+		this.throwIfNotType(Token.Type.IDENTIFIER, "Expected '%s.member'".formatted(className.content));
 		this.advance();
 		return switch (this.currentToken.type) {
 			case ASSIGN_OPERATOR -> {
 				this.advance();
 				Node valueNode = this.expression();
-				yield new StaticAssignNode(name, classDefinition, valueNode);
+				yield new StaticAssignNode(name, className.content, valueNode);
 			}
 			case LEFT_BRACKET -> {
 				this.advance();
@@ -1027,10 +1052,10 @@ public class Parser {
 					this.throwIfNotType(Token.Type.RIGHT_BRACKET, "Expected a ')'");
 				}
 				this.advance();
-				yield new StaticCallNode(name, classDefinition, argumentNodes);
+				yield new StaticCallNode(name, className.content, argumentNodes);
 			}
-			case INCREMENT, DECREMENT -> this.modifyStatic(name, classDefinition);
-			default -> new StaticAccessNode(name, classDefinition);
+			case INCREMENT, DECREMENT -> this.modifyStatic(name, className.content);
+			default -> new StaticAccessNode(name, className.content);
 		};
 	}
 
@@ -1039,26 +1064,35 @@ public class Parser {
 		switch (token.type) {
 			case IDENTIFIER -> {
 				this.advance();
-				if (isMember || this.context.isBuiltInFunction(token.content)) {
+				if (isMember) {
 					/*
 					 * Because we are calling a member function there is no way to know the
 					 * type of the value we are calling from.
 					 * We just have to trust that
-					 *
-					 * For the case of the built-in function we do not know the number of parameters
-					 * We would have to calculate the number of arguments first...
 					 */
 					return new FunctionAccessNode(token);
 				}
 
-				AbstractClassDefinition classDefinition = this.context.getClassDefinition(token.content);
-				if (classDefinition != null && this.currentToken.type == Token.Type.DOT) {
-					return this.staticMember(classDefinition);
+				if (this.currentToken.type == Token.Type.DOT && this.stackTable.getClassDefinition(token.content) != null) {
+					return this.staticMember(token);
 				}
 
-				Value<?> value = this.context.getVariable(token.content);
+				Value<?> value = this.stackTable.get(token.content);
 				if (value == null) {
-					throw new CodeError(CodeError.ErrorType.UNKNOWN_IDENTIFIER, "Could not find '%s'".formatted(token.content), token.syntaxPosition);
+					/*
+					 * The name was not declared in this program so it must come from the
+					 * context, either a class from an extension or a built-in function,
+					 * these are checked when the program is linked.
+					 *
+					 * For the case of the built-in function we do not know the number of parameters
+					 * We would have to calculate the number of arguments first...
+					 */
+					if (this.currentToken.type == Token.Type.DOT) {
+						this.addSymbol(Program.Symbol.Type.CLASS, token);
+						return this.staticMember(token);
+					}
+					this.addSymbol(Program.Symbol.Type.BUILT_IN_FUNCTION, token);
+					return new FunctionAccessNode(token);
 				}
 				
 				if (value instanceof FunctionValue) {
@@ -0,0 +1,104 @@
+package me.senseiwells.arucas.core;
+
+import me.senseiwells.arucas.nodes.Node;
+import me.senseiwells.arucas.throwables.CodeError;
+import me.senseiwells.arucas.tokens.Token;
+import me.senseiwells.arucas.utils.Context;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed program, the tree does not depend on the context it was
+ * parsed in so the same program can be run by many contexts at once.
+ * <p>
+ * Names that can only be checked against a context, like built in functions and
+ * classes from extensions, are kept in the symbol table and checked when linking.
+ */
+public class Program {
+	private final Node node;
+	private final List<Symbol> symbols;
+
+	Program(Node node, List<Symbol> symbols) {
+		this.node = node;
+		this.symbols = symbols;
+	}
+
+	public Node getNode() {
+		return this.node;
+	}
+
+	/**
+	 * Checks the symbols of this program against the context, the
+	 * errors are the same as the ones the parser used to throw
+	 */
+	public Node link(Context context) throws CodeError {
+		Set<String> declaredClasses = new HashSet<>();
+		for (Symbol symbol : this.symbols) {
+			String name = symbol.token.content;
+			switch (symbol.type) {
+				case BUILT_IN_FUNCTION -> {
+					if (!context.isBuiltInFunction(name)) {
+						throw new CodeError(CodeError.ErrorType.UNKNOWN_IDENTIFIER, "Could not find '%s'".formatted(name), symbol.token.syntaxPosition);
+					}
+				}
+				case CLASS -> {
+					if (context.getRootClassDefinition(name) == null) {
+						throw new CodeError(CodeError.ErrorType.UNKNOWN_IDENTIFIER, "Could not find '%s'".formatted(name), symbol.token.syntaxPosition);
+					}
+				}
+				case VARIABLE_DECLARATION -> context.throwIfStackNameTaken(name, symbol.token.syntaxPosition);
+				case CLASS_DECLARATION -> {
+					// A class declared by an earlier run can be declared again, the new one replaces the old one
+					if (context.getBuiltInClassDefinition(name) != null || !declaredClasses.add(name)) {
+						throw new CodeError(
+							CodeError.ErrorType.ILLEGAL_OPERATION_ERROR,
+							"%s is already defined as a class".formatted(name),
+							symbol.token.syntaxPosition
+						);
+					}
+				}
+			}
+		}
+		return this.node;
+	}
+
+	/**
+	 * Writes this program so it can be loaded by {@link ProgramReader} without being parsed again
+	 */
+	public void write(OutputStream out) throws IOException {
+		new ProgramWriter().write(this, out);
+	}
+
+	void write(ProgramWriter writer) {
+		writer.writeNode(this.node);
+		writer.writeInt(this.symbols.size());
+		for (Symbol symbol : this.symbols) {
+			writer.writeInt(symbol.type.ordinal());
+			writer.writeToken(symbol.token);
+		}
+	}
+
+	/**
+	 * A name the parser could not resolve by itself, kept in the order it was parsed
+	 */
+	static class Symbol {
+		private final Type type;
+		private final Token token;
+
+		Symbol(Type type, Token token) {
+			this.type = type;
+			this.token = token;
+		}
+
+		enum Type {
+			BUILT_IN_FUNCTION,
+			CLASS,
+			VARIABLE_DECLARATION,
+			CLASS_DECLARATION
+		}
+	}
+}
@@ -0,0 +1,396 @@
+package me.senseiwells.arucas.core;
+
+import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.nodes.*;
+import me.senseiwells.arucas.tokens.Token;
+import me.senseiwells.arucas.utils.Position;
+import me.senseiwells.arucas.values.BooleanValue;
+import me.senseiwells.arucas.values.NullValue;
+import me.senseiwells.arucas.values.NumberValue;
+import me.senseiwells.arucas.values.StringValue;
+import me.senseiwells.arucas.values.Value;
+import me.senseiwells.arucas.values.classes.ArucasClassDefinition;
+import me.senseiwells.arucas.values.functions.ClassMemberFunction;
+import me.senseiwells.arucas.values.functions.UserDefinedFunction;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads a program written by {@link ProgramWriter}, the tree is read from start
+ * to end in one pass and the nodes are built with the same constructors the
+ * parser uses. The tree is then optimised and resolved like a parsed tree.
+ */
+public class ProgramReader {
+	private static final ProgramWriter.Tag[] TAGS = ProgramWriter.Tag.values();
+	private static final Token.Type[] TOKEN_TYPES = Token.Type.values();
+	private static final Program.Symbol.Type[] SYMBOL_TYPES = Program.Symbol.Type.values();
+
+	private final ByteBuffer buffer;
+	private final List<Position> positions = new ArrayList<>();
+	private final List<UserDefinedFunction> functions = new ArrayList<>();
+	private String[] strings;
+
+	public ProgramReader(ByteBuffer buffer) {
+		this.buffer = buffer.duplicate();
+	}
+
+	/**
+	 * Reads the program, a reader can only be read once
+	 * @throws IOException if the buffer is not a program of this version
+	 */
+	public Program read() throws IOException {
+		try {
+			if (this.buffer.getInt() != ProgramWriter.MAGIC) {
+				throw new IOException("Not a compiled program");
+			}
+			int version = this.buffer.getInt();
+			if (version != ProgramWriter.VERSION) {
+				throw new IOException("Compiled program has version %d, expected version %d".formatted(version, ProgramWriter.VERSION));
+			}
+
+			this.strings = new String[this.readInt()];
+			for (int i = 0; i < this.strings.length; i++) {
+				byte[] bytes = new byte[this.readInt()];
+				this.buffer.get(bytes);
+				this.strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			Node programNode = this.readNode();
+			int symbolCount = this.readInt();
+			List<Program.Symbol> symbols = new ArrayList<>(symbolCount);
+			for (int i = 0; i < symbolCount; i++) {
+				Program.Symbol.Type type = SYMBOL_TYPES[this.readInt()];
+				symbols.add(new Program.Symbol(type, this.readToken()));
+			}
+			return new Program(new Resolver().resolve(new Optimiser().optimise(programNode)), symbols);
+		}
+		catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException | NullPointerException e) {
+			throw new IOException("Compiled program is corrupt", e);
+		}
+	}
+
+	/**
+	 * Returns true if the buffer starts with a compiled program, this does not move the buffer
+	 */
+	public static boolean isCompiled(ByteBuffer buffer) {
+		return buffer.remaining() >= 4 && buffer.getInt(buffer.position()) == ProgramWriter.MAGIC;
+	}
+
+	/**
+	 * Maps the file into memory, the buffer stays valid after the file is closed
+	 */
+	public static ByteBuffer map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	public static Program read(Path file) throws IOException {
+		return new ProgramReader(map(file)).read();
+	}
+
+	private Node readNode() throws IOException {
+		ProgramWriter.Tag tag = TAGS[this.readInt()];
+		return switch (tag) {
+			case NONE -> null;
+			case ARUCAS_CLASS -> {
+				ISyntax syntaxPosition = this.readSyntax();
+				yield new ArucasClassNode(this.readClass(), syntaxPosition, syntaxPosition);
+			}
+			case BINARY_OPERATOR -> {
+				Node leftNode = this.readNode();
+				Token operatorToken = this.readToken();
+				yield new BinaryOperatorNode(leftNode, operatorToken, this.readNode());
+			}
+			case BOOLEAN -> new BooleanNode(this.readToken());
+			case BREAK -> new BreakNode(this.readSyntax());
+			case BUILT_IN_FUNCTION -> {
+				Token token = this.readToken();
+				yield new BuiltInFunctionNode(token, this.readInt());
+			}
+			case CALL -> {
+				Node callNode = this.readNode();
+				yield new CallNode(callNode, this.readNodes());
+			}
+			case CONSTANT -> {
+				Token token = this.readToken();
+				ISyntax syntaxPosition = this.readSyntax();
+				yield new ConstantNode(token, syntaxPosition, this.readValue());
+			}
+			case CONTINUE -> new ContinueNode(this.readSyntax());
+			case DIRECT_ACCESS -> {
+				Token token = this.readToken();
+				yield new DirectAccessNode(token, this.readFunction());
+			}
+			case FOR -> {
+				Node initialExpression = this.readNode();
+				Node condition = this.readNode();
+				Node endExpression = this.readNode();
+				yield new ForNode(initialExpression, condition, endExpression, this.readNode());
+			}
+			case FOREACH -> {
+				Node list = this.readNode();
+				Node body = this.readNode();
+				yield new ForeachNode(list, body, this.readString());
+			}
+			case FUNCTION_ACCESS -> new FunctionAccessNode(this.readToken());
+			case FUNCTION -> this.readFunctionNode();
+			case IF -> {
+				Node conditionNode = this.readNode();
+				Node bodyNode = this.readNode();
+				yield new IfNode(conditionNode, bodyNode, this.readNode());
+			}
+			case LIST -> {
+				ISyntax syntaxPosition = this.readSyntax();
+				yield new ListNode(this.readNodes(), syntaxPosition, syntaxPosition);
+			}
+			case MAP -> {
+				ISyntax syntaxPosition = this.readSyntax();
+				int size = this.readInt();
+				Map<Node, Node> elementMap = new LinkedHashMap<>();
+				for (int i = 0; i < size; i++) {
+					Node key = this.readNode();
+					elementMap.put(key, this.readNode());
+				}
+				yield new MapNode(elementMap, syntaxPosition, syntaxPosition);
+			}
+			case MEMBER_ACCESS -> {
+				Node leftNode = this.readNode();
+				yield new MemberAccessNode(leftNode, this.readNode());
+			}
+			case MEMBER_ASSIGN -> {
+				Node leftNode = this.readNode();
+				Node memberName = this.readNode();
+				yield new MemberAssignNode(leftNode, memberName, this.readNode());
+			}
+			case MEMBER_CALL -> {
+				Node leftNode = this.readNode();
+				Node rightNode = this.readNode();
+				yield new MemberCallNode(leftNode, rightNode, this.readNodes());
+			}
+			case NEW -> {
+				ISyntax syntaxPosition = this.readSyntax();
+				Token className = this.readToken();
+				yield new NewNode(className, this.readNodes(), syntaxPosition, syntaxPosition);
+			}
+			case NULL -> new NullNode(this.readToken());
+			case NUMBER -> new NumberNode(this.readToken());
+			case RETURN -> {
+				ISyntax syntaxPosition = this.readSyntax();
+				yield new ReturnNode(this.readNode(), syntaxPosition, syntaxPosition);
+			}
+			case SCOPE -> {
+				ISyntax syntaxPosition = this.readSyntax();
+				List<Node> elementNodes = this.readNodes();
+				yield new ScopeNode(elementNodes, syntaxPosition, syntaxPosition, this.readBoolean());
+			}
+			case STATIC_ACCESS -> {
+				Token token = this.readToken();
+				yield new StaticAccessNode(token, this.readString());
+			}
+			case STATIC_ASSIGN -> {
+				Token token = this.readToken();
+				String className = this.readString();
+				yield new StaticAssignNode(token, className, this.readNode());
+			}
+			case STATIC_CALL -> {
+				Token token = this.readToken();
+				String className = this.readString();
+				yield new StaticCallNode(token, className, this.readNodes());
+			}
+			case STRING -> {
+				Token token = this.readToken();
+				yield new StringNode(token, new StringValue(this.readString()));
+			}
+			case SWITCH -> {
+				ISyntax syntaxPosition = this.readSyntax();
+				Node valueNode = this.readNode();
+				Node defaultCase = this.readNode();
+				int size = this.readInt();
+				Map<Node, Set<Value<?>>> cases = new LinkedHashMap<>();
+				for (int i = 0; i < size; i++) {
+					Node caseBody = this.readNode();
+					int valueCount = this.readInt();
+					Set<Value<?>> values = new HashSet<>();
+					for (int j = 0; j < valueCount; j++) {
+						values.add(this.readValue());
+					}
+					cases.put(caseBody, values);
+				}
+				yield new SwitchNode(valueNode, defaultCase, cases, syntaxPosition, syntaxPosition);
+			}
+			case TRY -> {
+				Node bodyNode = this.readNode();
+				Node catchNode = this.readNode();
+				yield new TryNode(bodyNode, catchNode, this.readString());
+			}
+			case UNARY_OPERATOR -> {
+				Token token = this.readToken();
+				yield new UnaryOperatorNode(token, this.readNode());
+			}
+			case VARIABLE_ACCESS -> new VariableAccessNode(this.readToken());
+			case VARIABLE_ASSIGN -> {
+				Token token = this.readToken();
+				yield new VariableAssignNode(token, this.readNode());
+			}
+			case WHILE -> {
+				Node condition = this.readNode();
+				yield new WhileNode(condition, this.readNode());
+			}
+		};
+	}
+
+	private List<Node> readNodes() throws IOException {
+		int size = this.readInt();
+		List<Node> nodes = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			nodes.add(this.readNode());
+		}
+		return nodes;
+	}
+
+	/**
+	 * Declarations are built like the parser builds them, the
+	 * function is added before its body so it can call itself
+	 */
+	private FunctionNode readFunctionNode() throws IOException {
+		Token variableNameToken = this.readToken();
+		if (this.readInt() != 0 || this.readBoolean()) {
+			throw new IOException("Function declaration does not declare a new function");
+		}
+		// The name of the function is the name of the variable
+		this.readString();
+		List<String> argumentNames = this.readStrings();
+		Token functionToken = new Token(Token.Type.FUN, this.readSyntax());
+		FunctionNode functionNode = new FunctionNode(functionToken, variableNameToken, argumentNames);
+		this.functions.add(functionNode.getFunctionValue());
+		functionNode.complete(this.readNode());
+		return functionNode;
+	}
+
+	private UserDefinedFunction readFunction() throws IOException {
+		int index = this.readInt();
+		if (index != 0) {
+			return this.functions.get(index - 1);
+		}
+		boolean isMember = this.readBoolean();
+		String name = this.readString();
+		List<String> argumentNames = this.readStrings();
+		ISyntax syntaxPosition = this.readSyntax();
+		UserDefinedFunction function = isMember ?
+			new ClassMemberFunction(name, argumentNames, syntaxPosition) :
+			new UserDefinedFunction(name, argumentNames, syntaxPosition);
+		this.functions.add(function);
+		function.complete(this.readNode());
+		return function;
+	}
+
+	/**
+	 * Reads the parts of a class in the order {@link ArucasClassDefinition#write} writes them
+	 */
+	private ArucasClassDefinition readClass() throws IOException {
+		ArucasClassDefinition definition = new ArucasClassDefinition(this.readString());
+		for (int i = this.readInt(); i > 0; i--) {
+			definition.addMethod((ClassMemberFunction) this.readFunction());
+		}
+		for (int i = this.readInt(); i > 0; i--) {
+			definition.addConstructor((ClassMemberFunction) this.readFunction());
+		}
+		for (int i = this.readInt(); i > 0; i--) {
+			Token.Type type = TOKEN_TYPES[this.readInt()];
+			definition.addOperatorMethod(type, (ClassMemberFunction) this.readFunction());
+		}
+		for (int i = this.readInt(); i > 0; i--) {
+			definition.addStaticMethod(this.readFunction());
+		}
+		for (int i = this.readInt(); i > 0; i--) {
+			String name = this.readString();
+			definition.addMemberVariableNode(false, name, this.readNode());
+		}
+		for (int i = this.readInt(); i > 0; i--) {
+			String name = this.readString();
+			definition.addMemberVariableNode(true, name, this.readNode());
+		}
+		for (int i = this.readInt(); i > 0; i--) {
+			definition.addStaticInitialiser(this.readNode());
+		}
+		return definition;
+	}
+
+	private Value<?> readValue() throws IOException {
+		ProgramWriter.Tag tag = TAGS[this.readInt()];
+		return switch (tag) {
+			case NULL -> NullValue.NULL;
+			case BOOLEAN -> BooleanValue.of(this.readBoolean());
+			case NUMBER -> NumberValue.of(Double.longBitsToDouble(this.buffer.getLong()));
+			case STRING -> new StringValue(this.readString());
+			default -> throw new IOException("Expected a constant but found '%s'".formatted(tag));
+		};
+	}
+
+	private Token readToken() {
+		Token.Type type = TOKEN_TYPES[this.readInt()];
+		String content = this.readString();
+		return new Token(type, content, this.readSyntax());
+	}
+
+	private ISyntax readSyntax() {
+		Position start = this.readPosition();
+		return ISyntax.of(start, this.readPosition());
+	}
+
+	private Position readPosition() {
+		int index = this.readInt();
+		if (index != 0) {
+			return this.positions.get(index - 1);
+		}
+		String fileName = this.readString();
+		int characterIndex = this.readInt();
+		int line = this.readInt();
+		Position position = new Position(characterIndex, line, this.readInt(), fileName);
+		this.positions.add(position);
+		return position;
+	}
+
+	private List<String> readStrings() {
+		int size = this.readInt();
+		List<String> strings = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			strings.add(this.readString());
+		}
+		return strings;
+	}
+
+	private String readString() {
+		return this.strings[this.readInt()];
+	}
+
+	private boolean readBoolean() {
+		return this.buffer.get() != 0;
+	}
+
+	private int readInt() {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = this.buffer.get();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while (b < 0);
+		return value;
+	}
+}
@@ -0,0 +1,238 @@
+package me.senseiwells.arucas.core;
+
+import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.nodes.Node;
+import me.senseiwells.arucas.tokens.Token;
+import me.senseiwells.arucas.utils.Position;
+import me.senseiwells.arucas.values.BooleanValue;
+import me.senseiwells.arucas.values.NullValue;
+import me.senseiwells.arucas.values.NumberValue;
+import me.senseiwells.arucas.values.StringValue;
+import me.senseiwells.arucas.values.Value;
+import me.senseiwells.arucas.values.functions.ClassMemberFunction;
+import me.senseiwells.arucas.values.functions.UserDefinedFunction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a parsed program in a binary form that {@link ProgramReader} can load
+ * without lexing or parsing the source again.
+ * <p>
+ * The file starts with {@link #MAGIC} and {@link #VERSION}, then every string the program
+ * uses, then the tree. Each node writes its tag and what its constructor needs, see
+ * {@link Node#write}. Integers are written in as few bytes as they fit in and strings,
+ * positions and functions that are used more than once are written once and referred to by index.
+ */
+public class ProgramWriter {
+	public static final int MAGIC = 0x41524243;
+	/**
+	 * This must be changed whenever the format, the tags or the token types change
+	 */
+	public static final int VERSION = 1;
+
+	private final ByteArrayOutputStream tree = new ByteArrayOutputStream();
+	private final Map<String, Integer> strings = new HashMap<>();
+	private final List<String> stringList = new ArrayList<>();
+	private final Map<Position, Integer> positions = new IdentityHashMap<>();
+	private final Map<UserDefinedFunction, Integer> functions = new IdentityHashMap<>();
+
+	/**
+	 * Writes the program to the stream, the stream is not closed
+	 */
+	public void write(Program program, OutputStream out) throws IOException {
+		program.write(this);
+
+		ByteArrayOutputStream header = new ByteArrayOutputStream();
+		writeFixedInt(header, MAGIC);
+		writeFixedInt(header, VERSION);
+		writeInt(header, this.stringList.size());
+		for (String string : this.stringList) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeInt(header, bytes.length);
+			header.write(bytes, 0, bytes.length);
+		}
+		header.writeTo(out);
+		this.tree.writeTo(out);
+	}
+
+	public void writeTag(Tag tag) {
+		this.writeInt(tag.ordinal());
+	}
+
+	/**
+	 * Writes a node that may be null
+	 */
+	public void writeNode(Node node) {
+		if (node == null) {
+			this.writeTag(Tag.NONE);
+			return;
+		}
+		node.write(this);
+	}
+
+	public void writeNodes(List<Node> nodes) {
+		this.writeInt(nodes.size());
+		for (Node node : nodes) {
+			node.write(this);
+		}
+	}
+
+	public void writeToken(Token token) {
+		this.writeInt(token.type.ordinal());
+		this.writeString(token.content);
+		this.writeSyntax(token.syntaxPosition);
+	}
+
+	public void writeSyntax(ISyntax syntaxPosition) {
+		this.writePosition(syntaxPosition.getStartPos());
+		this.writePosition(syntaxPosition.getEndPos());
+	}
+
+	public void writeBoolean(boolean bool) {
+		this.tree.write(bool ? 1 : 0);
+	}
+
+	public void writeInt(int value) {
+		writeInt(this.tree, value);
+	}
+
+	public void writeString(String string) {
+		Integer index = this.strings.get(string);
+		if (index == null) {
+			index = this.stringList.size();
+			this.strings.put(string, index);
+			this.stringList.add(string);
+		}
+		this.writeInt(index);
+	}
+
+	public void writeStrings(List<String> strings) {
+		this.writeInt(strings.size());
+		for (String string : strings) {
+			this.writeString(string);
+		}
+	}
+
+	/**
+	 * Writes a constant, only the values a {@link me.senseiwells.arucas.nodes.ConstantNode} can hold can be written
+	 */
+	public void writeValue(Value<?> value) {
+		if (value instanceof NullValue) {
+			this.writeTag(Tag.NULL);
+		}
+		else if (value instanceof BooleanValue booleanValue) {
+			this.writeTag(Tag.BOOLEAN);
+			this.writeBoolean(booleanValue.value);
+		}
+		else if (value instanceof NumberValue numberValue) {
+			this.writeTag(Tag.NUMBER);
+			long bits = Double.doubleToRawLongBits(numberValue.value);
+			writeFixedInt(this.tree, (int) (bits >>> 32));
+			writeFixedInt(this.tree, (int) bits);
+		}
+		else if (value instanceof StringValue stringValue) {
+			this.writeTag(Tag.STRING);
+			this.writeString(stringValue.value);
+		}
+		else {
+			throw new IllegalArgumentException("Cannot write constant of type '%s'".formatted(value.getClass().getSimpleName()));
+		}
+	}
+
+	/**
+	 * Writes the function the first time it is written, after that only its index is written.
+	 * Functions are shared by their declaration and the nodes that access them directly
+	 */
+	public void writeFunction(UserDefinedFunction function) {
+		Integer index = this.functions.get(function);
+		if (index != null) {
+			this.writeInt(index + 1);
+			return;
+		}
+		this.functions.put(function, this.functions.size());
+		this.writeInt(0);
+		this.writeBoolean(function instanceof ClassMemberFunction);
+		function.write(this);
+	}
+
+	private void writePosition(Position position) {
+		Integer index = this.positions.get(position);
+		if (index != null) {
+			this.writeInt(index + 1);
+			return;
+		}
+		this.positions.put(position, this.positions.size());
+		this.writeInt(0);
+		this.writeString(position.fileName);
+		this.writeInt(position.index);
+		this.writeInt(position.line);
+		this.writeInt(position.column);
+	}
+
+	/**
+	 * Writes seven bits at a time, the high bit is set if there are more bytes
+	 */
+	private static void writeInt(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static void writeFixedInt(ByteArrayOutputStream out, int value) {
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+	/**
+	 * What follows in the tree, a node or a constant
+	 */
+	public enum Tag {
+		NONE,
+		ARUCAS_CLASS,
+		BINARY_OPERATOR,
+		BOOLEAN,
+		BREAK,
+		BUILT_IN_FUNCTION,
+		CALL,
+		CONSTANT,
+		CONTINUE,
+		DIRECT_ACCESS,
+		FOR,
+		FOREACH,
+		FUNCTION_ACCESS,
+		FUNCTION,
+		IF,
+		LIST,
+		MAP,
+		MEMBER_ACCESS,
+		MEMBER_ASSIGN,
+		MEMBER_CALL,
+		NEW,
+		NULL,
+		NUMBER,
+		RETURN,
+		SCOPE,
+		STATIC_ACCESS,
+		STATIC_ASSIGN,
+		STATIC_CALL,
+		STRING,
+		SWITCH,
+		TRY,
+		UNARY_OPERATOR,
+		VARIABLE_ACCESS,
+		VARIABLE_ASSIGN,
+		WHILE
+	}
+}
@@ -0,0 +1,150 @@
+package me.senseiwells.arucas.core;
+
+import me.senseiwells.arucas.nodes.Node;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The resolver walks a parsed tree and assigns every local variable
+ * a slot in the scope it is declared in. Variable nodes then store
+ * how many scopes up and at what slot they can find their value.
+ * <p>
+ * Variables that live in the root table, or in a scope we cannot know
+ * at parse time, are left unresolved and are looked up by name.
+ */
+public class Resolver {
+	private final Deque<Deque<Scope>> regions;
+
+	public Resolver() {
+		this.regions = new ArrayDeque<>();
+	}
+
+	/**
+	 * Resolves the program, the top level of a program runs in a table we do not know
+	 */
+	public Node resolve(Node programNode) {
+		this.pushDynamicRegion();
+		programNode.resolve(this);
+		this.popRegion();
+		return programNode;
+	}
+
+	/**
+	 * This should be called when the node pushes a new scope at runtime
+	 */
+	public void pushScope() {
+		this.getScopes().push(new Scope(false));
+	}
+
+	/**
+	 * Returns the names of the locals in the popped scope, or null if there were none
+	 */
+	public String[] popScope() {
+		List<String> localNames = this.getScopes().pop().localNames;
+		return localNames.isEmpty() ? null : localNames.toArray(String[]::new);
+	}
+
+	/**
+	 * Function bodies cannot see the scopes they were defined in,
+	 * the parameters are always the first locals of the function scope
+	 */
+	public void pushFunctionRegion(List<String> argumentNames) {
+		Deque<Scope> scopes = new ArrayDeque<>();
+		Scope functionScope = new Scope(false);
+		functionScope.localNames.addAll(argumentNames);
+		scopes.push(functionScope);
+		this.regions.push(scopes);
+	}
+
+	/**
+	 * Used for code that runs in whatever scope the caller is in,
+	 * for example class member initialisers
+	 */
+	public void pushDynamicRegion() {
+		Deque<Scope> scopes = new ArrayDeque<>();
+		scopes.push(new Scope(true));
+		this.regions.push(scopes);
+	}
+
+	public void popRegion() {
+		this.regions.pop();
+	}
+
+	/**
+	 * Returns the names of the locals in the function scope, the parameters come first
+	 */
+	public String[] popFunctionRegion() {
+		List<String> localNames = this.regions.pop().getLast().localNames;
+		return localNames.toArray(String[]::new);
+	}
+
+	/**
+	 * Declares a variable that is always set in the current scope
+	 */
+	public Local declareLocal(String name) {
+		Scope scope = this.getScopes().peek();
+		if (scope == null || scope.isDynamic) {
+			return null;
+		}
+		int slot = scope.localNames.indexOf(name);
+		if (slot == -1) {
+			slot = scope.localNames.size();
+			scope.localNames.add(name);
+		}
+		return new Local(0, slot);
+	}
+
+	/**
+	 * Returns where a variable being read can be found, or null if it must be looked up by name
+	 */
+	public Local resolveAccess(String name) {
+		int depth = 0;
+		for (Scope scope : this.getScopes()) {
+			int slot = scope.localNames.indexOf(name);
+			if (slot != -1) {
+				return new Local(depth, slot);
+			}
+			depth++;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns where a variable being assigned should be stored, declaring it if it has not been seen
+	 */
+	public Local resolveAssign(String name) {
+		Local local = this.resolveAccess(name);
+		return local != null ? local : this.declareLocal(name);
+	}
+
+	private Deque<Scope> getScopes() {
+		return this.regions.peek();
+	}
+
+	private static class Scope {
+		private final List<String> localNames;
+		private final boolean isDynamic;
+
+		private Scope(boolean isDynamic) {
+			this.localNames = new ArrayList<>();
+			this.isDynamic = isDynamic;
+		}
+	}
+
+	/**
+	 * The number of scopes up and the slot a local variable is stored at,
+	 * if the slot is empty at runtime the variable is looked up by name instead
+	 */
+	public static final class Local {
+		public final int depth;
+		public final int slot;
+
+		private Local(int depth, int slot) {
+			this.depth = depth;
+			this.slot = slot;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package me.senseiwells.arucas.core;
 
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.Metrics;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.nodes.Node;
@@ -8,12 +9,48 @@ import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.values.NullValue;
 import me.senseiwells.arucas.values.Value;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 
 public class Run {
 	public static Value<?> run(Context context, String fileName, String fileContent) throws CodeError {
+		Metrics metrics = context.getMetrics();
+		if (metrics == null) {
+			return run(context, new Parser(new Lexer(fileContent, fileName)).parse().link(context));
+		}
+		
+		// The tokens are created first so lexing and parsing can be timed separately
+		long start = System.nanoTime();
 		List<Token> values = new Lexer(fileContent, fileName).createTokens();
-		Node nodeResult = new Parser(values, context).parse();
+		long lexed = System.nanoTime();
+		Program program = new Parser(values).parse();
+		metrics.countRun(lexed - start, System.nanoTime() - lexed);
+		return run(context, program.link(context));
+	}
+	
+	/**
+	 * Runs the code using the parsed program from the {@link ParseCache} if it has already been parsed
+	 */
+	public static Value<?> runCached(Context context, String fileName, String fileContent) throws CodeError {
+		return run(context, ParseCache.instance.parse(fileName, fileContent).link(context));
+	}
+	
+	/**
+	 * Runs a file of source code or a program written by {@link ProgramWriter}, compiled
+	 * programs are mapped into memory and loaded without being lexed or parsed
+	 */
+	public static Value<?> runFile(Context context, Path file) throws CodeError, IOException {
+		ByteBuffer buffer = ProgramReader.map(file);
+		if (!ProgramReader.isCompiled(buffer)) {
+			return run(context, file.toString(), StandardCharsets.UTF_8.decode(buffer).toString());
+		}
+		return run(context, new ProgramReader(buffer).read().link(context));
+	}
+	
+	private static Value<?> run(Context context, Node nodeResult) throws CodeError {
 		try {
 			Value<?> value = nodeResult.visit(context);
 			if (context.isDebug()) {
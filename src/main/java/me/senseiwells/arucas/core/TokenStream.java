@@ -0,0 +1,73 @@
+package me.senseiwells.arucas.core;
+
+import me.senseiwells.arucas.throwables.CodeError;
+import me.senseiwells.arucas.tokens.Token;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads tokens from a source as the parser needs them. Only the last few tokens
+ * are kept so the parser can go back to them, the memory used while parsing
+ * does not grow with the length of the script.
+ */
+class TokenStream {
+	/**
+	 * How far the parser can go back from the furthest token it has read
+	 */
+	private static final int HISTORY = 8;
+
+	private final Source source;
+	private final Token[] buffer;
+	private int read;
+	private int lastIndex;
+
+	TokenStream(Source source) {
+		this.source = source;
+		this.buffer = new Token[HISTORY];
+		this.lastIndex = Integer.MAX_VALUE;
+	}
+
+	static TokenStream of(List<Token> tokens) {
+		Iterator<Token> iterator = tokens.iterator();
+		return new TokenStream(() -> iterator.hasNext() ? iterator.next() : null);
+	}
+
+	/**
+	 * Returns the token at the index, or null if the index is after the last token
+	 */
+	Token get(int index) throws CodeError {
+		while (this.read <= index && this.read <= this.lastIndex) {
+			Token token = this.source.next();
+			if (token == null) {
+				this.lastIndex = this.read - 1;
+				break;
+			}
+			this.buffer[this.read % HISTORY] = token;
+			if (token.type == Token.Type.FINISH) {
+				this.lastIndex = this.read;
+			}
+			this.read++;
+		}
+
+		if (index < 0 || index >= this.read) {
+			return null;
+		}
+		if (index < this.read - HISTORY) {
+			throw new IllegalStateException("Token %d is no longer buffered".formatted(index));
+		}
+		return this.buffer[index % HISTORY];
+	}
+
+	/**
+	 * Returns the token at the index, indexes outside the tokens give the first or last token
+	 */
+	Token getClamped(int index) throws CodeError {
+		Token token = this.get(Math.max(index, 0));
+		return token != null ? token : this.get(Math.min(index, this.read - 1));
+	}
+
+	interface Source {
+		Token next() throws CodeError;
+	}
+}
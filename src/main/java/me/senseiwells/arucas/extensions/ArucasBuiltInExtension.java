@@ -6,10 +6,10 @@ import me.senseiwells.arucas.core.Run;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowStop;
+import me.senseiwells.arucas.utils.ArucasTask;
 import me.senseiwells.arucas.utils.ArucasValueList;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.utils.ExceptionUtils;
-import me.senseiwells.arucas.utils.ArucasThreadUtils;
 import me.senseiwells.arucas.values.*;
 import me.senseiwells.arucas.values.functions.BuiltInFunction;
 import me.senseiwells.arucas.values.functions.FunctionValue;
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Random;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 public class ArucasBuiltInExtension implements IArucasExtension {
 	private final Scanner scanner = new Scanner(System.in);
@@ -83,7 +84,7 @@ public class ArucasBuiltInExtension implements IArucasExtension {
 		try {
 			Context childContext = context.createChildContext(filePath);
 			String fileContent = Files.readString(Path.of(filePath));
-			return Run.run(childContext, filePath, fileContent);
+			return Run.runCached(childContext, filePath, fileContent);
 		}
 		catch (IOException | OutOfMemoryError | InvalidPathException e) {
 			throw new RuntimeError("Failed to execute script '%s' \n%s".formatted(filePath, e), function.syntaxPosition, context);
@@ -97,7 +98,7 @@ public class ArucasBuiltInExtension implements IArucasExtension {
 	private Value<?> sleep(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
 		try {
-			Thread.sleep(numberValue.value.longValue());
+			Thread.sleep((long) numberValue.value);
 		}
 		catch (InterruptedException e) {
 			throw new CodeError(CodeError.ErrorType.INTERRUPTED_ERROR, "", function.syntaxPosition);
@@ -128,19 +129,19 @@ public class ArucasBuiltInExtension implements IArucasExtension {
 
 	private Value<?> random(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(this.random.nextInt(numValue.value.intValue()));
+		return NumberValue.of(this.random.nextInt((int) numValue.value));
 	}
 
 	private Value<?> len(Context context, BuiltInFunction function) throws CodeError {
 		Value<?> value = function.getParameterValue(context, 0);
 		if (value instanceof ListValue listValue) {
-			return new NumberValue(listValue.value.size());
+			return NumberValue.of(listValue.value.size());
 		}
 		if (value instanceof StringValue stringValue) {
-			return new NumberValue(stringValue.value.length());
+			return NumberValue.of(stringValue.value.length());
 		}
 		if (value instanceof MapValue mapValue) {
-			return new NumberValue(mapValue.value.size());
+			return NumberValue.of(mapValue.value.size());
 		}
 		throw new RuntimeError("Cannot pass %s into len()".formatted(value), function.syntaxPosition, context);
 	}
@@ -148,22 +149,34 @@ public class ArucasBuiltInExtension implements IArucasExtension {
 	private Value<?> runThreaded(Context context, BuiltInFunction function) throws CodeError {
 		FunctionValue functionValue = function.getParameterValueOfType(context, FunctionValue.class, 0);
 		List<Value<?>> list = function.getParameterValueOfType(context, ListValue.class, 1).value;
-		Thread thread = ArucasThreadHandler.instance.runBranchAsyncFunction((branchContext) -> functionValue.call(branchContext, list));
-		long threadId = thread.getId();
-		ArucasThreadUtils.addThreadToMap(threadId, thread);
-		return new NumberValue(threadId);
+		ArucasThreadHandler threadHandler = context.getThreadHandler();
+		ArucasTask task;
+		try {
+			task = threadHandler == null ? null : threadHandler.runBranchAsyncFunction((branchContext) -> functionValue.call(branchContext, list));
+		}
+		catch (RejectedExecutionException e) {
+			throw new RuntimeError("Cannot start another thread, every thread is busy", function.syntaxPosition, context);
+		}
+		if (task == null) {
+			throw new RuntimeError("Threads can only be started while the thread handler is running", function.syntaxPosition, context);
+		}
+		if (context.getMetrics() != null) {
+			context.getMetrics().countThreadStarted();
+		}
+		return NumberValue.of(task.getId());
 	}
 
 	private Value<?> stopThread(Context context, BuiltInFunction function) throws CodeError {
-		long threadId = function.getParameterValueOfType(context, NumberValue.class, 0).value.longValue();
-		Thread thread = ArucasThreadUtils.getThreadById(threadId);
-		if (thread == null) {
+		long threadId = (long) function.getParameterValueOfType(context, NumberValue.class, 0).value;
+		ArucasThreadHandler threadHandler = context.getThreadHandler();
+		ArucasTask task = threadHandler == null ? null : threadHandler.getTask(threadId);
+		if (task == null) {
+			if (threadHandler != null && threadHandler.hasStartedTask(threadId)) {
+				throw new RuntimeError("Thread is not alive", function.syntaxPosition, context);
+			}
 			throw new RuntimeError("No thread with id %d".formatted(threadId), function.syntaxPosition, context);
 		}
-		if (!thread.isAlive()) {
-			throw new RuntimeError("Thread is not alive", function.syntaxPosition, context);
-		}
-		thread.interrupt();
+		task.cancel();
 		return NullValue.NULL;
 	}
 
@@ -258,51 +271,51 @@ public class ArucasBuiltInExtension implements IArucasExtension {
 
 	private Value<?> runFromString(Context context, BuiltInFunction function) throws CodeError {
 		StringValue stringValue = function.getParameterValueOfType(context, StringValue.class, 0);
-		return Run.run(context, "string-run", stringValue.value);
+		return Run.runCached(context, "string-run", stringValue.value);
 	}
 
 	private Value<?> sin(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(Math.sin(numberValue.value));
+		return NumberValue.of(Math.sin(numberValue.value));
 	}
 
 	private Value<?> cos(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(Math.cos(numberValue.value));
+		return NumberValue.of(Math.cos(numberValue.value));
 	}
 
 	private Value<?> tan(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(Math.tan(numberValue.value));
+		return NumberValue.of(Math.tan(numberValue.value));
 	}
 
 	private Value<?> arcsin(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(Math.asin(numberValue.value));
+		return NumberValue.of(Math.asin(numberValue.value));
 	}
 
 	private Value<?> arccos(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(Math.acos(numberValue.value));
+		return NumberValue.of(Math.acos(numberValue.value));
 	}
 
 	private Value<?> arctan(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(Math.atan(numberValue.value));
+		return NumberValue.of(Math.atan(numberValue.value));
 	}
 
 	private Value<?> cosec(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(1 / Math.sin(numberValue.value));
+		return NumberValue.of(1 / Math.sin(numberValue.value));
 	}
 
 	private Value<?> sec(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(1 / Math.cos(numberValue.value));
+		return NumberValue.of(1 / Math.cos(numberValue.value));
 	}
 
 	private Value<?> cot(Context context, BuiltInFunction function) throws CodeError {
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(1 / Math.tan(numberValue.value));
+		return NumberValue.of(1 / Math.tan(numberValue.value));
 	}
 }
@@ -1,6 +1,9 @@
 package me.senseiwells.arucas.nodes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.tokens.Token;
@@ -17,11 +20,30 @@ public class ArucasClassNode extends Node {
 		this.definition = definition;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.definition.resolve(resolver);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.definition.optimise(optimiser);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.ARUCAS_CLASS);
+		writer.writeSyntax(this.syntaxPosition);
+		this.definition.write(writer);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		// Class definition must come before statics
-		context.addClassDefinition(this.definition);
-		this.definition.initialiseStatics(context);
+		ArucasClassDefinition definition = this.definition.copy();
+		context.declareClassDefinition(definition);
+		definition.initialiseStatics(context);
 		return NullValue.NULL;
 	}
 }
@@ -1,11 +1,16 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.values.BooleanValue;
+import me.senseiwells.arucas.values.NumberValue;
+import me.senseiwells.arucas.values.StringValue;
 import me.senseiwells.arucas.values.Value;
 import me.senseiwells.arucas.values.classes.ArucasClassValue;
 
@@ -13,8 +18,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class BinaryOperatorNode extends Node {
-	private final Node leftNode;
-	private final Node rightNode;
+	private Node leftNode;
+	private Node rightNode;
 
 	public BinaryOperatorNode(Node leftNode, Token operatorToken, Node rightNode) {
 		super(operatorToken, leftNode.syntaxPosition, rightNode.syntaxPosition);
@@ -22,6 +27,60 @@ public class BinaryOperatorNode extends Node {
 		this.rightNode = rightNode;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.leftNode.resolve(resolver);
+		this.rightNode.resolve(resolver);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.leftNode = optimiser.optimise(this.leftNode);
+		this.rightNode = optimiser.optimise(this.rightNode);
+		Value<?> left = this.leftNode.getConstant();
+		if (left instanceof BooleanValue leftBoolean) {
+			// The right hand side would never be evaluated
+			if (this.token.type == Token.Type.AND && !leftBoolean.value) {
+				return new ConstantNode(this, BooleanValue.FALSE);
+			}
+			if (this.token.type == Token.Type.OR && leftBoolean.value) {
+				return new ConstantNode(this, BooleanValue.TRUE);
+			}
+		}
+		Value<?> right = this.rightNode.getConstant();
+		if (left != null && right != null && this.canFold(left, right)) {
+			try {
+				// The operations that can be folded do not use the context
+				return new ConstantNode(this, this.visit(null));
+			}
+			catch (CodeError | ThrowValue error) {
+				return this;
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Only operations between literals that do not need a context are folded
+	 */
+	private boolean canFold(Value<?> left, Value<?> right) {
+		return switch (this.token.type) {
+			case EQUALS, NOT_EQUALS -> true;
+			case PLUS -> left.getClass() == right.getClass() && (left instanceof NumberValue || left instanceof StringValue);
+			case MINUS, MULTIPLY, DIVIDE, POWER, LESS_THAN, LESS_THAN_EQUAL, MORE_THAN, MORE_THAN_EQUAL -> left instanceof NumberValue && right instanceof NumberValue;
+			case AND, OR -> left instanceof BooleanValue && right instanceof BooleanValue;
+			default -> false;
+		};
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.BINARY_OPERATOR);
+		writer.writeNode(this.leftNode);
+		writer.writeToken(this.token);
+		writer.writeNode(this.rightNode);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		Value<?> left = this.leftNode.visit(context);
@@ -47,8 +106,29 @@ public class BinaryOperatorNode extends Node {
 			default -> right = this.rightNode.visit(context);
 		}
 
+		if (left instanceof NumberValue leftNumber && right instanceof NumberValue rightNumber) {
+			// Numbers are the most common operands so they skip the operation methods
+			double leftValue = leftNumber.value;
+			double rightValue = rightNumber.value;
+			switch (this.token.type) {
+				case PLUS -> result = NumberValue.of(leftValue + rightValue);
+				case MINUS -> result = NumberValue.of(leftValue - rightValue);
+				case MULTIPLY -> result = NumberValue.of(leftValue * rightValue);
+				case DIVIDE -> result = NumberValue.of(leftValue / rightValue);
+				case POWER -> result = NumberValue.of(Math.pow(leftValue, rightValue));
+				case LESS_THAN -> result = BooleanValue.of(leftValue < rightValue);
+				case LESS_THAN_EQUAL -> result = BooleanValue.of(leftValue <= rightValue);
+				case MORE_THAN -> result = BooleanValue.of(leftValue > rightValue);
+				case MORE_THAN_EQUAL -> result = BooleanValue.of(leftValue >= rightValue);
+			}
+			if (result != null) {
+				return result;
+			}
+		}
+
 		if (this.token.type != Token.Type.NOT && left instanceof ArucasClassValue classValue && classValue.hasOperatorMethod(this.token.type)) {
-			List<Value<?>> parameters = new ArrayList<>();
+			List<Value<?>> parameters = new ArrayList<>(2);
+			parameters.add(classValue);
 			parameters.add(right);
 			return classValue.getOperatorMethod(this.token.type).call(context, parameters);
 		}
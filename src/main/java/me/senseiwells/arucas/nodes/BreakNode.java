@@ -1,6 +1,7 @@
 package me.senseiwells.arucas.nodes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.ProgramWriter;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.utils.Context;
@@ -11,10 +12,14 @@ public class BreakNode extends Node {
 		super(new Token(Token.Type.BREAK, position));
 	}
 
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.BREAK);
+		writer.writeSyntax(this.syntaxPosition);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws ThrowValue {
-		// We push a new scope to make StackTraces easier to read
-		context.pushScope(this.syntaxPosition);
-		throw new ThrowValue.Break();
+		throw ThrowValue.Break.INSTANCE;
 	}
 }
@@ -0,0 +1,62 @@
+package me.senseiwells.arucas.nodes;
+
+import me.senseiwells.arucas.api.IArucasExtension;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.throwables.CodeError;
+import me.senseiwells.arucas.throwables.RuntimeError;
+import me.senseiwells.arucas.tokens.Token;
+import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.values.Value;
+import me.senseiwells.arucas.values.functions.AbstractBuiltInFunction;
+
+import java.util.List;
+
+/**
+ * Built in functions come from the extensions of the context the
+ * program is run in, so they are looked up when they are called.
+ * The function found is remembered for the extensions it was found in.
+ */
+public class BuiltInFunctionNode extends Node {
+	private final int parameters;
+	private volatile Found found;
+
+	public BuiltInFunctionNode(Token token, int parameters) {
+		super(token);
+		this.parameters = parameters;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.BUILT_IN_FUNCTION);
+		writer.writeToken(this.token);
+		writer.writeInt(this.parameters);
+	}
+
+	@Override
+	public Value<?> visit(Context context) throws CodeError {
+		Found found = this.found;
+		if (found == null || found.extensions != context.getExtensions()) {
+			AbstractBuiltInFunction<?> function = context.getBuiltInFunction(this.token.content, this.parameters);
+			if (function == null) {
+				throw new RuntimeError("Built in function '%s' does not take %d parameter%s".formatted(
+					this.token.content,
+					this.parameters,
+					this.parameters == 1 ? "" : "s"
+				), this.syntaxPosition, context);
+			}
+			found = new Found(context.getExtensions(), function);
+			this.found = found;
+		}
+		return found.function;
+	}
+
+	private static class Found {
+		private final List<IArucasExtension> extensions;
+		private final AbstractBuiltInFunction<?> function;
+
+		private Found(List<IArucasExtension> extensions, AbstractBuiltInFunction<?> function) {
+			this.extensions = extensions;
+			this.function = function;
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -12,7 +15,7 @@ import java.util.List;
 
 public class CallNode extends Node {
 	protected final List<Node> argumentNodes;
-	protected final Node callNode;
+	protected Node callNode;
 
 	public CallNode(Node callNode, List<Node> argumentNodes) {
 		super(callNode.token, callNode.syntaxPosition, (argumentNodes.size() > 0 ? argumentNodes.get(argumentNodes.size() - 1) : callNode).syntaxPosition);
@@ -20,10 +23,32 @@ public class CallNode extends Node {
 		this.callNode = callNode;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.callNode.resolve(resolver);
+		for (Node node : this.argumentNodes) {
+			node.resolve(resolver);
+		}
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.callNode = optimiser.optimise(this.callNode);
+		optimiser.optimiseAll(this.argumentNodes);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.CALL);
+		writer.writeNode(this.callNode);
+		writer.writeNodes(this.argumentNodes);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		// Throws an error if the thread has been interrupted
-		this.keepRunning();
+		this.keepRunning(context);
 		
 		Value<?> value = this.callNode.visit(context);
 		if (!(value instanceof FunctionValue functionValue)) {
@@ -35,10 +60,13 @@ public class CallNode extends Node {
 			argumentValues.add(node.visit(context));
 		}
 		
-		// We push a new scope to make StackTraces easier to read
-		context.pushScope(this.syntaxPosition);
-		Value<?> result = functionValue.call(context, argumentValues);
-		context.popScope();
-		return result;
+		// The call site is kept on the call stack so it can be shown in tracebacks
+		context.pushCall(this.syntaxPosition, functionValue);
+		try {
+			return functionValue.call(context, argumentValues);
+		}
+		finally {
+			context.popCall();
+		}
 	}
 }
@@ -0,0 +1,47 @@
+package me.senseiwells.arucas.nodes;
+
+import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.tokens.Token;
+import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.values.Value;
+
+/**
+ * The result of an operation that was folded by the {@link me.senseiwells.arucas.core.Optimiser},
+ * the value must not be able to change so only numbers, strings, booleans and null are folded.
+ */
+public class ConstantNode extends Node {
+	private final Value<?> value;
+
+	public ConstantNode(Token token, ISyntax syntaxPosition, Value<?> value) {
+		super(token, syntaxPosition);
+		this.value = value;
+	}
+
+	public ConstantNode(Node node, Value<?> value) {
+		this(node.token, node.syntaxPosition, value);
+	}
+
+	@Override
+	public Value<?> getConstant() {
+		return this.value;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.CONSTANT);
+		writer.writeToken(this.token);
+		writer.writeSyntax(this.syntaxPosition);
+		writer.writeValue(this.value);
+	}
+
+	@Override
+	public Value<?> visit(Context context) {
+		return this.value;
+	}
+
+	@Override
+	public String toString() {
+		return this.value.toString();
+	}
+}
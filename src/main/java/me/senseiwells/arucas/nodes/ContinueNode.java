@@ -1,6 +1,7 @@
 package me.senseiwells.arucas.nodes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.ProgramWriter;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -12,10 +13,14 @@ public class ContinueNode extends Node {
 		super(new Token(Token.Type.CONTINUE, position));
 	}
 
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.CONTINUE);
+		writer.writeSyntax(this.syntaxPosition);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		// We push a scope to make StackTraces easier to read
-		context.pushScope(this.syntaxPosition);
-		throw new ThrowValue.Continue();
+		throw ThrowValue.Continue.INSTANCE;
 	}
 }
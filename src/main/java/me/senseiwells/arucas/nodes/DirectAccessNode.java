@@ -1,8 +1,10 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.ProgramWriter;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.values.Value;
+import me.senseiwells.arucas.values.functions.UserDefinedFunction;
 
 public class DirectAccessNode extends Node {
 	private final Value<?> value;
@@ -12,6 +14,13 @@ public class DirectAccessNode extends Node {
 		this.value = value;
 	}
 
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.DIRECT_ACCESS);
+		writer.writeToken(this.token);
+		writer.writeFunction((UserDefinedFunction) this.value);
+	}
+
 	@Override
 	public Value<?> visit(Context context) {
 		return this.value;
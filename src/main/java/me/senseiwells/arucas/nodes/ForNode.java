@@ -1,17 +1,22 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.StackTable;
 import me.senseiwells.arucas.values.BooleanValue;
 import me.senseiwells.arucas.values.NullValue;
 import me.senseiwells.arucas.values.Value;
 
 public class ForNode extends Node {
-	private final Node initialExpression;
-	private final Node condition;
-	private final Node endExpression;
-	private final Node body;
+	private Node initialExpression;
+	private Node condition;
+	private Node endExpression;
+	private Node body;
+	private String[] localNames;
 
 	public ForNode(Node initialExpression, Node condition, Node endExpression, Node body) {
 		super(condition.token, initialExpression.syntaxPosition, body.syntaxPosition);
@@ -21,12 +26,43 @@ public class ForNode extends Node {
 		this.body = body;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		// The end expression is resolved before the body because
+		// the loop scope persists between iterations
+		resolver.pushScope();
+		this.initialExpression.resolve(resolver);
+		this.condition.resolve(resolver);
+		this.endExpression.resolve(resolver);
+		this.body.resolve(resolver);
+		this.localNames = resolver.popScope();
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.initialExpression = optimiser.optimise(this.initialExpression);
+		this.condition = optimiser.optimise(this.condition);
+		this.endExpression = optimiser.optimise(this.endExpression);
+		this.body = optimiser.optimise(this.body);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.FOR);
+		writer.writeNode(this.initialExpression);
+		writer.writeNode(this.condition);
+		writer.writeNode(this.endExpression);
+		writer.writeNode(this.body);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		context.pushLoopScope(this.syntaxPosition);
+		context.pushScope(this.syntaxPosition, this.localNames);
+		StackTable loopScope = context.getStackTable();
 
 		this.initialExpression.visit(context);
-		while (this.keepRunning()) {
+		while (this.keepRunning(context)) {
 			Value<?> conditionValue = this.condition.visit(context);
 			if (!(conditionValue instanceof BooleanValue booleanValue)) {
 				throw new CodeError(CodeError.ErrorType.ILLEGAL_OPERATION_ERROR, "Condition must result in either 'true' or 'false'", this.syntaxPosition);
@@ -38,15 +74,15 @@ public class ForNode extends Node {
 
 			try {
 				this.body.visit(context);
-				this.endExpression.visit(context);
 			}
 			catch (ThrowValue.Break tv) {
-				context.moveScope(context.getBreakScope());
+				context.moveScope(loopScope);
 				break;
 			}
 			catch (ThrowValue.Continue tv) {
-				context.moveScope(context.getContinueScope());
+				context.moveScope(loopScope);
 			}
+			this.endExpression.visit(context);
 		}
 
 		context.popScope();
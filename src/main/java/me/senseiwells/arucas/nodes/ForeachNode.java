@@ -1,17 +1,22 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
-import me.senseiwells.arucas.utils.ArucasValueList;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.StackTable;
 import me.senseiwells.arucas.values.ListValue;
 import me.senseiwells.arucas.values.NullValue;
+import me.senseiwells.arucas.values.NumberValue;
 import me.senseiwells.arucas.values.Value;
 
 public class ForeachNode extends Node {
-	private final Node list;
-	private final Node body;
+	private Node list;
+	private Node body;
 	private final String forParameterName;
+	private String[] localNames;
 
 	public ForeachNode(Node list, Node body, String forParameterName) {
 		super(list.token, list.syntaxPosition, body.syntaxPosition);
@@ -20,38 +25,78 @@ public class ForeachNode extends Node {
 		this.forParameterName = forParameterName;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		resolver.pushScope();
+		this.list.resolve(resolver);
+		resolver.declareLocal(this.forParameterName);
+		this.body.resolve(resolver);
+		this.localNames = resolver.popScope();
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.list = optimiser.optimise(this.list);
+		this.body = optimiser.optimise(this.body);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.FOREACH);
+		writer.writeNode(this.list);
+		writer.writeNode(this.body);
+		writer.writeString(this.forParameterName);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		context.pushLoopScope(this.syntaxPosition);
+		context.pushScope(this.syntaxPosition, this.localNames);
+		StackTable loopScope = context.getStackTable();
 		Value<?> forValue = this.list.visit(context);
 		if (!(forValue instanceof ListValue listValue)) {
 			throw new CodeError(CodeError.ErrorType.ILLEGAL_OPERATION_ERROR, "For loop must contain a list", this.syntaxPosition);
 		}
 		
-		final ArucasValueList list = listValue.value;
-		
-		// This for loop must not iterate over the elements in the list with 'for (element : list)'
-		// because this would cause an ConcurrentModificationException
-		for (int i = 0; i < list.size(); i++) {
-			// Throws an error if the thread has been interrupted
-			this.keepRunning();
-			
-			// If the list is not synchronized this could cause an IndexOutOfBoundsException
-			Value<?> value = list.get(i);
-			
-			context.setLocal(this.forParameterName, value);
-			try {
-				this.body.visit(context);
-			}
-			catch (ThrowValue.Break tv) {
-				context.moveScope(context.getBreakScope());
-				break;
+		// We iterate over a snapshot so changes made to the list by the body, or
+		// by other threads, cannot cause an IndexOutOfBoundsException
+		double[] numbers = listValue.value.copyNumbers();
+		if (numbers != null) {
+			for (double number : numbers) {
+				if (!this.iterate(context, loopScope, this.body, NumberValue.of(number))) {
+					break;
+				}
 			}
-			catch (ThrowValue.Continue tv) {
-				context.moveScope(context.getContinueScope());
+		}
+		else {
+			for (Value<?> value : listValue.value.snapshot()) {
+				if (!this.iterate(context, loopScope, this.body, value)) {
+					break;
+				}
 			}
 		}
 		context.popScope();
 		return NullValue.NULL;
 	}
+
+	/**
+	 * Runs the body for one value, returns false if the loop was broken out of
+	 */
+	private boolean iterate(Context context, StackTable loopScope, Node body, Value<?> value) throws CodeError, ThrowValue {
+		// Throws an error if the thread has been interrupted
+		this.keepRunning(context);
+
+		context.setLocal(this.forParameterName, value);
+		try {
+			body.visit(context);
+		}
+		catch (ThrowValue.Break tv) {
+			context.moveScope(loopScope);
+			return false;
+		}
+		catch (ThrowValue.Continue tv) {
+			context.moveScope(loopScope);
+		}
+		return true;
+	}
 }
@@ -1,5 +1,6 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.ProgramWriter;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
@@ -14,6 +15,12 @@ public class FunctionAccessNode extends Node {
 		this.functionName = new StringValue(token.content);
 	}
 
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.FUNCTION_ACCESS);
+		writer.writeToken(this.token);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError {
 		// Because we cannot verify the member name in here we will return the function name
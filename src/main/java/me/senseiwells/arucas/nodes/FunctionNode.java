@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.tokens.Token;
@@ -12,6 +15,7 @@ import java.util.List;
 public class FunctionNode extends Node {
 	private final Token variableNameToken;
 	private final UserDefinedFunction functionValue;
+	private Resolver.Local local;
 
 	public FunctionNode(Token functionToken, Token varNameToken, List<String> argumentNames) {
 		super(varNameToken, new MutableSyntaxImpl(varNameToken.syntaxPosition.getStartPos(), null));
@@ -37,12 +41,36 @@ public class FunctionNode extends Node {
 		return this.functionValue;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.functionValue.resolve(resolver);
+		this.local = resolver.resolveAssign(this.variableNameToken.content);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.functionValue.optimise(optimiser);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.FUNCTION);
+		writer.writeToken(this.variableNameToken);
+		writer.writeFunction(this.functionValue);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError {
 		String functionName = this.variableNameToken.content;
 		context.throwIfStackNameTaken(null, this.syntaxPosition);
 		
-		context.setVariable(functionName, this.functionValue);
+		if (this.local == null) {
+			context.setVariable(functionName, this.functionValue);
+		}
+		else {
+			context.setVariable(functionName, this.local.depth, this.local.slot, this.functionValue);
+		}
 		return this.functionValue;
 	}
 }
@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -8,9 +11,10 @@ import me.senseiwells.arucas.values.NullValue;
 import me.senseiwells.arucas.values.Value;
 
 public class IfNode extends Node {
-	private final Node conditionNode;
-	private final Node bodyNode;
-	private final Node elseNode;
+	private Node conditionNode;
+	private Node bodyNode;
+	private Node elseNode;
+	private String[] localNames;
 
 	public IfNode(Node conditionNode, Node bodyNode, Node elseNode) {
 		super(conditionNode.token, conditionNode.syntaxPosition, (elseNode instanceof NullNode ? conditionNode : elseNode).syntaxPosition);
@@ -19,9 +23,38 @@ public class IfNode extends Node {
 		this.elseNode = elseNode;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		resolver.pushScope();
+		this.conditionNode.resolve(resolver);
+		this.bodyNode.resolve(resolver);
+		this.elseNode.resolve(resolver);
+		this.localNames = resolver.popScope();
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.conditionNode = optimiser.optimise(this.conditionNode);
+		this.bodyNode = optimiser.optimise(this.bodyNode);
+		this.elseNode = optimiser.optimise(this.elseNode);
+		// A literal condition cannot declare anything so only one of the branches is kept
+		if (this.conditionNode.getConstant() instanceof BooleanValue booleanValue) {
+			return booleanValue.value ? this.bodyNode : this.elseNode;
+		}
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.IF);
+		writer.writeNode(this.conditionNode);
+		writer.writeNode(this.bodyNode);
+		writer.writeNode(this.elseNode);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		context.pushScope(this.syntaxPosition);
+		context.pushScope(this.syntaxPosition, this.localNames);
 		
 		Value<?> conditionalValue = this.conditionNode.visit(context);
 		if (!(conditionalValue instanceof BooleanValue booleanValue)) {
@@ -0,0 +1,80 @@
+package me.senseiwells.arucas.nodes;
+
+import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * A small cache that a node keeps for the result of a member lookup.
+ * The key is something that is the same for every value the lookup
+ * would give the same result for, like the type of the value.
+ * <p>
+ * A node that sees more than {@link #MAX_ENTRIES} keys stops adding
+ * to its cache. Hits and misses are counted by the metrics of the context.
+ */
+public class InlineCache<T> {
+	public static final int MAX_ENTRIES = 4;
+
+	private static final Entry<?>[] EMPTY = new Entry<?>[0];
+
+	private volatile Entry<?>[] entries;
+
+	public InlineCache() {
+		this.entries = EMPTY;
+	}
+
+	/**
+	 * Returns the cached target for the key, or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(Context context, Object key) {
+		Metrics metrics = context.getMetrics();
+		for (Entry<?> entry : this.entries) {
+			if (entry.key == key) {
+				if (metrics != null) {
+					metrics.countCacheHit();
+				}
+				return (T) entry.target;
+			}
+		}
+		if (metrics != null) {
+			metrics.countCacheMiss();
+		}
+		return null;
+	}
+
+	/**
+	 * Adds a target to the cache, this does nothing if the cache is full
+	 */
+	public void put(Object key, T target) {
+		synchronized (this) {
+			Entry<?>[] entries = this.entries;
+			if (entries.length >= MAX_ENTRIES) {
+				return;
+			}
+			for (Entry<?> entry : entries) {
+				if (entry.key == key) {
+					return;
+				}
+			}
+			Entry<?>[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+			newEntries[entries.length] = new Entry<>(key, target);
+			this.entries = newEntries;
+		}
+	}
+
+	public int size() {
+		return this.entries.length;
+	}
+
+	private static class Entry<T> {
+		private final Object key;
+		private final T target;
+
+		private Entry(Object key, T target) {
+			this.key = key;
+			this.target = target;
+		}
+	}
+}
@@ -1,6 +1,9 @@
 package me.senseiwells.arucas.nodes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.utils.ArucasValueList;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.throwables.CodeError;
@@ -19,6 +22,26 @@ public class ListNode extends Node {
 		this.elementNodes = elementNodes;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		for (Node elementNode : this.elementNodes) {
+			elementNode.resolve(resolver);
+		}
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		optimiser.optimiseAll(this.elementNodes);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.LIST);
+		writer.writeSyntax(this.syntaxPosition);
+		writer.writeNodes(this.elementNodes);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		ArucasValueList elements = new ArucasValueList();
@@ -1,6 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -8,6 +10,7 @@ import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.ArucasValueMap;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.values.MapValue;
+import me.senseiwells.arucas.values.NullValue;
 import me.senseiwells.arucas.values.Value;
 
 import java.util.Map;
@@ -20,13 +23,32 @@ public class MapNode extends Node {
 		this.mapNode = mapNode;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		for (Map.Entry<Node, Node> entry : this.mapNode.entrySet()) {
+			entry.getKey().resolve(resolver);
+			entry.getValue().resolve(resolver);
+		}
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.MAP);
+		writer.writeSyntax(this.syntaxPosition);
+		writer.writeInt(this.mapNode.size());
+		for (Map.Entry<Node, Node> entry : this.mapNode.entrySet()) {
+			writer.writeNode(entry.getKey());
+			writer.writeNode(entry.getValue());
+		}
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		ArucasValueMap valueMap = new ArucasValueMap();
 		for (Map.Entry<Node, Node> entry : this.mapNode.entrySet()) {
 			Value<?> key = entry.getKey().visit(context);
 			Value<?> value = entry.getValue().visit(context);
-			if (key.value == null || value.value == null) {
+			if (key instanceof NullValue || value instanceof NullValue) {
 				throw new RuntimeError("Cannot put null inside a map", this.syntaxPosition, context);
 			}
 			
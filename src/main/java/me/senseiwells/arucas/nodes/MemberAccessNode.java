@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -8,14 +11,37 @@ import me.senseiwells.arucas.values.StringValue;
 import me.senseiwells.arucas.values.Value;
 import me.senseiwells.arucas.values.classes.ArucasClassValue;
 
+import java.util.function.Function;
+
 public class MemberAccessNode extends Node {
-	private final Node leftNode;
+	private Node leftNode;
 	private final Node rightNode;
+	private final InlineCache<Function<ArucasClassValue, Value<?>>> cache;
 
 	public MemberAccessNode(Node leftNode, Node rightNode) {
 		super(leftNode.token, leftNode.syntaxPosition, rightNode.syntaxPosition);
 		this.leftNode = leftNode;
 		this.rightNode = rightNode;
+		this.cache = new InlineCache<>();
+	}
+
+	@Override
+	public void resolve(Resolver resolver) {
+		this.leftNode.resolve(resolver);
+		this.rightNode.resolve(resolver);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.leftNode = optimiser.optimise(this.leftNode);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.MEMBER_ACCESS);
+		writer.writeNode(this.leftNode);
+		writer.writeNode(this.rightNode);
 	}
 
 	@Override
@@ -33,7 +59,7 @@ public class MemberAccessNode extends Node {
 			), this.syntaxPosition, context);
 		}
 		
-		Value<?> value = classValue.getMember(memberName.value);
+		Value<?> value = this.getMember(context, classValue, memberName.value);
 		if (value == null) {
 			throw new RuntimeError("Member variable '%s' was not defined for the value type '%s'".formatted(
 				memberName,
@@ -43,4 +69,30 @@ public class MemberAccessNode extends Node {
 		
 		return value;
 	}
+
+	/**
+	 * Instances of a class have the same member variables and
+	 * methods so we cache where the member was found
+	 */
+	private Value<?> getMember(Context context, ArucasClassValue classValue, String name) {
+		Object key = classValue.value.getMethods();
+		Function<ArucasClassValue, Value<?>> target = this.cache.get(context, key);
+		if (target != null) {
+			return target.apply(classValue);
+		}
+
+		int slot = classValue.value.getMemberSlot(name);
+		if (slot != -1) {
+			target = value -> value.getField(slot);
+		}
+		else {
+			int index = classValue.getDelegateIndex(name);
+			if (index == -1) {
+				return classValue.getMember(name);
+			}
+			target = value -> value.bindMethod(index);
+		}
+		this.cache.put(key, target);
+		return target.apply(classValue);
+	}
 }
@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -9,9 +12,9 @@ import me.senseiwells.arucas.values.Value;
 import me.senseiwells.arucas.values.classes.ArucasClassValue;
 
 public class MemberAssignNode extends Node {
-	private final Node leftNode;
+	private Node leftNode;
 	private final Node memberName;
-	private final Node valueNode;
+	private Node valueNode;
 	
 	public MemberAssignNode(Node leftNode, Node memberName, Node valueNode) {
 		super(leftNode.token, leftNode.syntaxPosition, valueNode.syntaxPosition);
@@ -20,6 +23,28 @@ public class MemberAssignNode extends Node {
 		this.valueNode = valueNode;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.leftNode.resolve(resolver);
+		this.memberName.resolve(resolver);
+		this.valueNode.resolve(resolver);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.leftNode = optimiser.optimise(this.leftNode);
+		this.valueNode = optimiser.optimise(this.valueNode);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.MEMBER_ASSIGN);
+		writer.writeNode(this.leftNode);
+		writer.writeNode(this.memberName);
+		writer.writeNode(this.valueNode);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		// The leftNode holds the Value<?> we which to call this member function on
@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -7,23 +10,48 @@ import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.values.StringValue;
 import me.senseiwells.arucas.values.Value;
 import me.senseiwells.arucas.values.classes.ArucasClassValue;
+import me.senseiwells.arucas.values.functions.ClassMemberFunction;
 import me.senseiwells.arucas.values.functions.FunctionValue;
+import me.senseiwells.arucas.values.functions.MemberFunction;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public class MemberCallNode extends CallNode {
-	private final Node valueNode;
+	private Node valueNode;
+	private final InlineCache<Function<Value<?>, FunctionValue>> cache;
 
 	public MemberCallNode(Node leftNode, Node rightNode, List<Node> argumentNodes) {
 		super(rightNode, argumentNodes);
 		this.valueNode = leftNode;
+		this.cache = new InlineCache<>();
+	}
+
+	@Override
+	public void resolve(Resolver resolver) {
+		this.valueNode.resolve(resolver);
+		super.resolve(resolver);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.valueNode = optimiser.optimise(this.valueNode);
+		return super.optimise(optimiser);
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.MEMBER_CALL);
+		writer.writeNode(this.valueNode);
+		writer.writeNode(this.callNode);
+		writer.writeNodes(this.argumentNodes);
 	}
 
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		// Throws an error if the thread has been interrupted
-		this.keepRunning();
+		this.keepRunning(context);
 		
 		// The value node holds the Value<?> we which to call this member function on
 		Value<?> memberValue = this.valueNode.visit(context);
@@ -32,18 +60,7 @@ public class MemberCallNode extends CallNode {
 		StringValue memberFunctionName = (StringValue) this.callNode.visit(context);
 		
 		List<Value<?>> argumentValues = new ArrayList<>();
-		FunctionValue function = null;
-		String customClassName = null;
-		if (memberValue instanceof ArucasClassValue classValue) {
-			customClassName = classValue.getName();
-			// Get the class method from the value
-			function = classValue.getMember(memberFunctionName.value, this.argumentNodes.size() + 1);
-		}
-		
-		if (function == null) {
-			// If we had a class value, but we didn't find the member we should search the generic type members
-			function = memberValue.getMember(memberFunctionName.value, this.argumentNodes.size());
-		}
+		FunctionValue function = this.getFunction(context, memberValue, memberFunctionName.value);
 		
 		if (function == null) {
 			int arguments = this.argumentNodes.size();
@@ -51,18 +68,58 @@ public class MemberCallNode extends CallNode {
 			throw new RuntimeError("Member function '%s'%s was not defined for the type '%s'".formatted(
 				memberFunctionName,
 				parameters,
-				customClassName != null ? customClassName : memberValue.getClass().getSimpleName()
+				memberValue instanceof ArucasClassValue classValue ? classValue.getName() : memberValue.getClass().getSimpleName()
 			), this.syntaxPosition, context);
 		}
 
+		// Member functions and class methods are shared between values so the value is passed in as the first argument
+		if (function instanceof MemberFunction || function instanceof ClassMemberFunction) {
+			argumentValues.add(memberValue);
+		}
+
 		for (Node node : this.argumentNodes) {
 			argumentValues.add(node.visit(context));
 		}
 		
-		// We push a new scope to make StackTraces easier to read
-		context.pushScope(this.syntaxPosition);
-		Value<?> result = function.call(context, argumentValues);
-		context.popScope();
-		return result;
+		// The call site is kept on the call stack so it can be shown in tracebacks
+		context.pushCall(this.syntaxPosition, function);
+		try {
+			return function.call(context, argumentValues);
+		}
+		finally {
+			context.popCall();
+		}
+	}
+
+	/**
+	 * Instances of a class have the same methods, and values of the same
+	 * type have the same member functions, so the lookup can be cached.
+	 * Other values are keyed on their set of members and not their type, so
+	 * a value that gives each instance its own set is never given the member
+	 * function of another instance.
+	 */
+	private FunctionValue getFunction(Context context, Value<?> memberValue, String name) {
+		Object key = memberValue instanceof ArucasClassValue classValue ? classValue.value.getMethods() : memberValue.getAllMembers();
+		Function<Value<?>, FunctionValue> target = this.cache.get(context, key);
+		if (target != null) {
+			return target.apply(memberValue);
+		}
+
+		int parameters = this.argumentNodes.size() + 1;
+		if (memberValue instanceof ArucasClassValue classValue) {
+			// Get the class method from the value
+			int index = classValue.getMethodIndex(name, parameters);
+			if (index != -1) {
+				this.cache.put(key, value -> ((ArucasClassValue) value).getMethod(index));
+				return classValue.getMethod(index);
+			}
+		}
+
+		// If we had a class value, but we didn't find the member we should search the generic type members
+		FunctionValue function = memberValue.getMember(name, parameters);
+		if (function != null) {
+			this.cache.put(key, value -> function);
+		}
+		return function;
 	}
 }
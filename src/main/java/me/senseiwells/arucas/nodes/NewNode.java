@@ -1,9 +1,11 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.ProgramWriter;
 import me.senseiwells.arucas.values.classes.AbstractClassDefinition;
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
-import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
@@ -22,15 +24,33 @@ public class NewNode extends Node {
 		this.className = className;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		for (Node node : this.arguments) {
+			node.resolve(resolver);
+		}
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		optimiser.optimiseAll(this.arguments);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.NEW);
+		writer.writeSyntax(this.syntaxPosition);
+		writer.writeToken(this.className);
+		writer.writeNodes(this.arguments);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		// Throws an error if the thread has been interrupted
-		this.keepRunning();
+		this.keepRunning(context);
 
-		AbstractClassDefinition definition = context.getClassDefinition(this.className.content);
-		if (definition == null) {
-			throw new RuntimeError("The class '%s' does not exist".formatted(this.className.content), this.syntaxPosition, context);
-		}
+		AbstractClassDefinition definition = this.getClassDefinition(context, this.className.content);
 		
 		List<Value<?>> parameters = new ArrayList<>();
 		for (Node node : this.arguments) {
@@ -1,12 +1,17 @@
 package me.senseiwells.arucas.nodes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.throwables.CodeError;
+import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.utils.Position;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.values.Value;
+import me.senseiwells.arucas.values.classes.AbstractClassDefinition;
 
 public abstract class Node {
 	public final Token token;
@@ -33,17 +38,55 @@ public abstract class Node {
 	public abstract Value<?> visit(Context context) throws CodeError, ThrowValue;
 	
 	/**
-	 * Returns true if we should keep running.
-	 * @throws CodeError if the application has been interrupted
+	 * Resolves the local variables of this node and its children.
 	 */
-	protected final boolean keepRunning() throws CodeError {
+	public void resolve(Resolver resolver) { }
+	
+	/**
+	 * Optimises the children of this node and returns the node that should replace it.
+	 */
+	public Node optimise(Optimiser optimiser) {
+		return this;
+	}
+	
+	/**
+	 * Writes the tag of this node and what its constructor needs, see {@link me.senseiwells.arucas.core.ProgramReader}.
+	 */
+	public abstract void write(ProgramWriter writer);
+	
+	/**
+	 * Returns the value of this node if it is always the same, otherwise null.
+	 */
+	public Value<?> getConstant() {
+		return null;
+	}
+	
+	/**
+	 * Returns true if we should keep running, this takes a step from the context's budget.
+	 * @throws CodeError if the application has been interrupted or the budget has run out
+	 */
+	protected final boolean keepRunning(Context context) throws CodeError {
 		if (Thread.currentThread().isInterrupted()) {
 			throw new CodeError(CodeError.ErrorType.INTERRUPTED_ERROR, "", this.syntaxPosition);
 		}
 		
+		context.step(this.syntaxPosition);
 		return true;
 	}
 	
+	/**
+	 * Classes are looked up by name when they are used so that
+	 * the same tree can be run in contexts with different classes.
+	 * @throws RuntimeError if the class does not exist in the context
+	 */
+	protected final AbstractClassDefinition getClassDefinition(Context context, String className) throws CodeError {
+		AbstractClassDefinition definition = context.getClassDefinition(className);
+		if (definition == null) {
+			throw new RuntimeError("The class '%s' does not exist".formatted(className), this.syntaxPosition, context);
+		}
+		return definition;
+	}
+	
 	@Override
 	public String toString() {
 		return this.token.toString();
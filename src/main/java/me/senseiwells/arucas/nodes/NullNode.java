@@ -1,5 +1,6 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.ProgramWriter;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.values.NullValue;
@@ -13,6 +14,17 @@ public class NullNode extends Node {
 		this.value = NullValue.NULL;
 	}
 
+	@Override
+	public Value<?> getConstant() {
+		return this.value;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.NULL);
+		writer.writeToken(this.token);
+	}
+
 	@Override
 	public Value<?> visit(Context context) {
 		return this.value;
@@ -1,5 +1,6 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.ProgramWriter;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.values.NumberValue;
@@ -10,7 +11,18 @@ public class NumberNode extends Node {
 
 	public NumberNode(Token token) {
 		super(token);
-		this.value = new NumberValue(Double.parseDouble(token.content));
+		this.value = NumberValue.of(Double.parseDouble(token.content));
+	}
+
+	@Override
+	public Value<?> getConstant() {
+		return this.value;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.NUMBER);
+		writer.writeToken(this.token);
 	}
 
 	@Override
@@ -1,6 +1,9 @@
 package me.senseiwells.arucas.nodes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.throwables.CodeError;
@@ -8,16 +11,33 @@ import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.values.Value;
 
 public class ReturnNode extends Node {
-	private final Node returnNode;
+	private Node returnNode;
 
 	public ReturnNode(Node returnNode, ISyntax startPos, ISyntax endPos) {
 		super(new Token(Token.Type.RETURN, startPos, endPos));
 		this.returnNode = returnNode;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.returnNode.resolve(resolver);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.returnNode = optimiser.optimise(this.returnNode);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.RETURN);
+		writer.writeSyntax(this.syntaxPosition);
+		writer.writeNode(this.returnNode);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		Value<?> value = this.returnNode.visit(context);
-		throw new ThrowValue.Return(value);
+		throw new ThrowValue.Return(this.returnNode.visit(context));
 	}
 }
@@ -1,6 +1,9 @@
 package me.senseiwells.arucas.nodes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.tokens.Token;
@@ -12,15 +15,64 @@ import java.util.List;
 
 public class ScopeNode extends Node {
 	private final List<Node> elementNodes;
+	private final boolean declaresVariables;
+	private boolean pushesScope;
+	private String[] localNames;
 
-	public ScopeNode(List<Node> elementNodes, ISyntax startPos, ISyntax endPos) {
+	/**
+	 * The parser knows if anything is declared in this scope, if nothing is then
+	 * the scope does not need to push a table after the tree has been optimised
+	 */
+	public ScopeNode(List<Node> elementNodes, ISyntax startPos, ISyntax endPos, boolean declaresVariables) {
 		super(new Token(Token.Type.SCOPE, startPos, endPos));
 		this.elementNodes = elementNodes;
+		this.declaresVariables = declaresVariables;
+		this.pushesScope = true;
+	}
+
+	public ScopeNode(List<Node> elementNodes, ISyntax startPos, ISyntax endPos) {
+		this(elementNodes, startPos, endPos, true);
+	}
+
+	@Override
+	public void resolve(Resolver resolver) {
+		if (!this.pushesScope) {
+			for (Node elementNode : this.elementNodes) {
+				elementNode.resolve(resolver);
+			}
+			return;
+		}
+		resolver.pushScope();
+		for (Node elementNode : this.elementNodes) {
+			elementNode.resolve(resolver);
+		}
+		this.localNames = resolver.popScope();
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		optimiser.optimiseAll(this.elementNodes);
+		this.pushesScope = this.declaresVariables;
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.SCOPE);
+		writer.writeSyntax(this.syntaxPosition);
+		writer.writeNodes(this.elementNodes);
+		writer.writeBoolean(this.declaresVariables);
 	}
 
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		context.pushScope(this.syntaxPosition);
+		if (!this.pushesScope) {
+			for (Node elementNode : this.elementNodes) {
+				elementNode.visit(context);
+			}
+			return NullValue.NULL;
+		}
+		context.pushScope(this.syntaxPosition, this.localNames);
 		
 		for (Node elementNode : this.elementNodes) {
 			elementNode.visit(context);
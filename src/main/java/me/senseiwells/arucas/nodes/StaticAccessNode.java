@@ -1,5 +1,6 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.ProgramWriter;
 import me.senseiwells.arucas.values.classes.AbstractClassDefinition;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
@@ -9,20 +10,28 @@ import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.values.Value;
 
 public class StaticAccessNode extends Node {
-	private final AbstractClassDefinition classDefinition;
+	private final String className;
 
-	public StaticAccessNode(Token token, AbstractClassDefinition classDefinition) {
+	public StaticAccessNode(Token token, String className) {
 		super(token);
-		this.classDefinition = classDefinition;
+		this.className = className;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.STATIC_ACCESS);
+		writer.writeToken(this.token);
+		writer.writeString(this.className);
 	}
 
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		Value<?> staticValue = this.classDefinition.getMember(this.token.content);
+		AbstractClassDefinition classDefinition = this.getClassDefinition(context, this.className);
+		Value<?> staticValue = classDefinition.getMember(this.token.content);
 		if (staticValue == null) {
 			throw new RuntimeError("Static member variable '%s' was not defined for the value type '%s'".formatted(
 				this.token.content,
-				this.classDefinition.getName()
+				classDefinition.getName()
 			), this.syntaxPosition, context);
 		}
 		return staticValue;
@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.values.classes.AbstractClassDefinition;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
@@ -9,22 +12,42 @@ import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.values.Value;
 
 public class StaticAssignNode extends Node {
-	private final AbstractClassDefinition classDefinition;
-	private final Node valueNode;
+	private final String className;
+	private Node valueNode;
 
-	public StaticAssignNode(Token token, AbstractClassDefinition classDefinition, Node valueNode) {
+	public StaticAssignNode(Token token, String className, Node valueNode) {
 		super(token);
-		this.classDefinition = classDefinition;
+		this.className = className;
 		this.valueNode = valueNode;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.valueNode.resolve(resolver);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.valueNode = optimiser.optimise(this.valueNode);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.STATIC_ASSIGN);
+		writer.writeToken(this.token);
+		writer.writeString(this.className);
+		writer.writeNode(this.valueNode);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		Value<?> newValue = this.valueNode.visit(context);
+		AbstractClassDefinition classDefinition = this.getClassDefinition(context, this.className);
 
-		if (!this.classDefinition.hasMember(this.token.content) || !this.classDefinition.setMember(this.token.content, newValue)) {
+		if (!classDefinition.hasMember(this.token.content) || !classDefinition.setMember(this.token.content, newValue)) {
 			throw new RuntimeError(
-				"The member '%s' cannot be set for '%s'".formatted(this.token.content, this.classDefinition.getName()),
+				"The member '%s' cannot be set for '%s'".formatted(this.token.content, classDefinition.getName()),
 				this.syntaxPosition,
 				context
 			);
@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.values.classes.AbstractClassDefinition;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
@@ -13,28 +16,59 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class StaticCallNode extends Node {
-	private final AbstractClassDefinition classDefinition;
+	private final String className;
 	private final List<Node> argumentNodes;
+	private final InlineCache<FunctionValue> cache;
 
-	public StaticCallNode(Token token, AbstractClassDefinition classDefinition, List<Node> argumentNodes) {
+	public StaticCallNode(Token token, String className, List<Node> argumentNodes) {
 		super(token);
-		this.classDefinition = classDefinition;
+		this.className = className;
 		this.argumentNodes = argumentNodes;
+		this.cache = new InlineCache<>();
+	}
+
+	@Override
+	public void resolve(Resolver resolver) {
+		for (Node node : this.argumentNodes) {
+			node.resolve(resolver);
+		}
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		optimiser.optimiseAll(this.argumentNodes);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.STATIC_CALL);
+		writer.writeToken(this.token);
+		writer.writeString(this.className);
+		writer.writeNodes(this.argumentNodes);
 	}
 
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		this.keepRunning();
+		this.keepRunning(context);
 		int arguments = this.argumentNodes.size();
 
-		FunctionValue method = this.classDefinition.getMember(this.token.content, arguments);
+		AbstractClassDefinition classDefinition = this.getClassDefinition(context, this.className);
+		// Copies of a class definition share their static methods
+		FunctionValue method = this.cache.get(context, classDefinition.getStaticMethods());
+		if (method == null) {
+			method = classDefinition.getMember(this.token.content, arguments);
+			if (method != null) {
+				this.cache.put(classDefinition.getStaticMethods(), method);
+			}
+		}
 
 		if (method == null) {
 			String parameters = (arguments == 0) ? "":" with %d parameter%s".formatted(arguments, arguments == 1 ? "":"s");
 			throw new RuntimeError("Member function '%s'%s was not defined for the type '%s'".formatted(
 				this.token.content,
 				parameters,
-				this.classDefinition.getName()
+				classDefinition.getName()
 			), this.syntaxPosition, context);
 		}
 
@@ -43,9 +77,13 @@ public class StaticCallNode extends Node {
 			argumentValues.add(node.visit(context));
 		}
 
-		context.pushScope(this.syntaxPosition);
-		Value<?> result = method.call(context, argumentValues);
-		context.popScope();
-		return result;
+		// The call site is kept on the call stack so it can be shown in tracebacks
+		context.pushCall(this.syntaxPosition, method);
+		try {
+			return method.call(context, argumentValues);
+		}
+		finally {
+			context.popCall();
+		}
 	}
 }
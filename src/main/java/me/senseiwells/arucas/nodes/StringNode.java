@@ -1,5 +1,6 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.ProgramWriter;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.values.StringValue;
@@ -13,6 +14,18 @@ public class StringNode extends Node {
 		this.value = value;
 	}
 
+	@Override
+	public Value<?> getConstant() {
+		return this.value;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.STRING);
+		writer.writeToken(this.token);
+		writer.writeString(this.value.value);
+	}
+
 	@Override
 	public Value<?> visit(Context context) {
 		return this.value;
@@ -1,10 +1,13 @@
 package me.senseiwells.arucas.nodes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.StackTable;
 import me.senseiwells.arucas.values.NullValue;
 import me.senseiwells.arucas.values.Value;
 
@@ -15,6 +18,7 @@ public class SwitchNode extends Node {
 	private final Map<Node, Set<Value<?>>> cases;
 	private final Node valueNode;
 	private final Node defaultCase;
+	private String[] localNames;
 	
 	public SwitchNode(Node valueNode, Node defaultCase, Map<Node, Set<Value<?>>> cases, ISyntax startPos, ISyntax endPos) {
 		super(new Token(Token.Type.SWITCH, startPos, endPos));
@@ -23,9 +27,39 @@ public class SwitchNode extends Node {
 		this.cases = cases;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		resolver.pushScope();
+		this.valueNode.resolve(resolver);
+		for (Node node : this.cases.keySet()) {
+			node.resolve(resolver);
+		}
+		if (this.defaultCase != null) {
+			this.defaultCase.resolve(resolver);
+		}
+		this.localNames = resolver.popScope();
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.SWITCH);
+		writer.writeSyntax(this.syntaxPosition);
+		writer.writeNode(this.valueNode);
+		writer.writeNode(this.defaultCase);
+		writer.writeInt(this.cases.size());
+		for (Map.Entry<Node, Set<Value<?>>> entry : this.cases.entrySet()) {
+			writer.writeNode(entry.getKey());
+			writer.writeInt(entry.getValue().size());
+			for (Value<?> value : entry.getValue()) {
+				writer.writeValue(value);
+			}
+		}
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		context.pushSwitchScope(this.syntaxPosition);
+		context.pushScope(this.syntaxPosition, this.localNames);
+		StackTable switchScope = context.getStackTable();
 		Value<?> value = this.valueNode.visit(context);
 		
 		try {
@@ -46,7 +80,7 @@ public class SwitchNode extends Node {
 			}
 		}
 		catch (ThrowValue.Break tv) {
-			context.moveScope(context.getBreakScope());
+			context.moveScope(switchScope);
 		}
 		
 		context.popScope();
@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -10,9 +13,11 @@ import me.senseiwells.arucas.values.StringValue;
 import me.senseiwells.arucas.values.Value;
 
 public class TryNode extends Node {
-	private final Node bodyNode;
-	private final Node catchNode;
+	private Node bodyNode;
+	private Node catchNode;
 	private final String catchParameterName;
+	private String[] bodyLocalNames;
+	private String[] catchLocalNames;
 	
 	public TryNode(Node bodyNode, Node catchNode, String catchParameterName) {
 		super(bodyNode.token, bodyNode.syntaxPosition, catchNode.syntaxPosition);
@@ -21,16 +26,42 @@ public class TryNode extends Node {
 		this.catchParameterName = catchParameterName;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		resolver.pushScope();
+		this.bodyNode.resolve(resolver);
+		this.bodyLocalNames = resolver.popScope();
+		resolver.pushScope();
+		resolver.declareLocal(this.catchParameterName);
+		this.catchNode.resolve(resolver);
+		this.catchLocalNames = resolver.popScope();
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.bodyNode = optimiser.optimise(this.bodyNode);
+		this.catchNode = optimiser.optimise(this.catchNode);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.TRY);
+		writer.writeNode(this.bodyNode);
+		writer.writeNode(this.catchNode);
+		writer.writeString(this.catchParameterName);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		StackTable originalScope = context.getStackTable();
-		context.pushScope(this.syntaxPosition);
+		context.pushScope(this.syntaxPosition, this.bodyLocalNames);
 		try {
 			this.bodyNode.visit(context);
 		}
 		catch (RuntimeError e) {
 			context.moveScope(originalScope);
-			context.pushScope(this.syntaxPosition);
+			context.pushScope(this.syntaxPosition, this.catchLocalNames);
 			context.setLocal(this.catchParameterName, new StringValue(e.getMessage()));
 			this.catchNode.visit(context);
 		}
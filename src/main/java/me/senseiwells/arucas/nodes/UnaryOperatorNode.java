@@ -1,34 +1,77 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.values.BooleanValue;
 import me.senseiwells.arucas.values.NumberValue;
 import me.senseiwells.arucas.values.Value;
 import me.senseiwells.arucas.values.classes.ArucasClassValue;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class UnaryOperatorNode extends Node {
-	private final Node node;
+	private Node node;
 
 	public UnaryOperatorNode(Token token, Node node) {
 		super(token);
 		this.node = node;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.node.resolve(resolver);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.node = optimiser.optimise(this.node);
+		Value<?> value = this.node.getConstant();
+		boolean canFold = switch (this.token.type) {
+			case NOT -> value instanceof BooleanValue;
+			case MINUS -> value instanceof NumberValue;
+			default -> false;
+		};
+		if (canFold) {
+			try {
+				// Operations on numbers and booleans do not use the context
+				return new ConstantNode(this, this.operate(null, value));
+			}
+			catch (CodeError | ThrowValue error) {
+				return this;
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.UNARY_OPERATOR);
+		writer.writeToken(this.token);
+		writer.writeNode(this.node);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		Value<?> value = this.node.visit(context);
+		return this.operate(context, this.node.visit(context));
+	}
+
+	private Value<?> operate(Context context, Value<?> value) throws CodeError, ThrowValue {
 		switch (this.token.type) {
 			case NOT -> {
 				if (value instanceof ArucasClassValue classValue && classValue.hasOperatorMethod(Token.Type.NOT)) {
-					return classValue.getOperatorMethod(Token.Type.NOT).call(context, new ArrayList<>());
+					List<Value<?>> parameters = new ArrayList<>(1);
+					parameters.add(classValue);
+					return classValue.getOperatorMethod(Token.Type.NOT).call(context, parameters);
 				}
 				value = value.not(context, this.syntaxPosition);
 			}
-			case MINUS -> value = value.multiplyBy(context, new NumberValue(-1), this.syntaxPosition);
+			case MINUS -> value = value.multiplyBy(context, NumberValue.of(-1), this.syntaxPosition);
 		}
 		return value;
 	}
@@ -1,18 +1,33 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.values.Value;
 
 public class VariableAccessNode extends Node {
+	private Resolver.Local local;
+
 	public VariableAccessNode(Token token) {
 		super(token);
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.local = resolver.resolveAccess(this.token.content);
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.VARIABLE_ACCESS);
+		writer.writeToken(this.token);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError {
-		Value<?> value = context.getVariable(this.token.content);
+		Value<?> value = this.local == null ? context.getVariable(this.token.content) : context.getVariable(this.token.content, this.local.depth, this.local.slot);
 		if (value == null) {
 			throw new CodeError(CodeError.ErrorType.UNKNOWN_IDENTIFIER, "%s is not defined".formatted(this.token.content), this.syntaxPosition);
 		}
@@ -1,5 +1,8 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -7,20 +10,45 @@ import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.values.Value;
 
 public class VariableAssignNode extends Node {
-	private final Node node;
+	private Node node;
+	private Resolver.Local local;
 
 	public VariableAssignNode(Token token, Node node) {
 		super(token);
 		this.node = node;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		this.node.resolve(resolver);
+		this.local = resolver.resolveAssign(this.token.content);
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.node = optimiser.optimise(this.node);
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.VARIABLE_ASSIGN);
+		writer.writeToken(this.token);
+		writer.writeNode(this.node);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
 		String name = this.token.content;
 		context.throwIfStackNameTaken(name, this.syntaxPosition);
 		
 		Value<?> value = this.node.visit(context);
-		context.setVariable(name, value);
+		if (this.local == null) {
+			context.setVariable(name, value);
+		}
+		else {
+			context.setVariable(name, this.local.depth, this.local.slot, value);
+		}
 		return value;
 	}
 }
@@ -1,6 +1,10 @@
 package me.senseiwells.arucas.nodes;
 
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.StackTable;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.values.BooleanValue;
@@ -8,8 +12,9 @@ import me.senseiwells.arucas.values.NullValue;
 import me.senseiwells.arucas.values.Value;
 
 public class WhileNode extends Node {
-	private final Node condition;
-	private final Node body;
+	private Node condition;
+	private Node body;
+	private String[] localNames;
 
 	public WhileNode(Node condition, Node body) {
 		super(condition.token, condition.syntaxPosition, body.syntaxPosition);
@@ -17,11 +22,37 @@ public class WhileNode extends Node {
 		this.body = body;
 	}
 
+	@Override
+	public void resolve(Resolver resolver) {
+		resolver.pushScope();
+		this.condition.resolve(resolver);
+		this.body.resolve(resolver);
+		this.localNames = resolver.popScope();
+	}
+
+	@Override
+	public Node optimise(Optimiser optimiser) {
+		this.condition = optimiser.optimise(this.condition);
+		this.body = optimiser.optimise(this.body);
+		if (this.condition.getConstant() instanceof BooleanValue booleanValue && !booleanValue.value) {
+			return new NullNode(this.token);
+		}
+		return this;
+	}
+
+	@Override
+	public void write(ProgramWriter writer) {
+		writer.writeTag(ProgramWriter.Tag.WHILE);
+		writer.writeNode(this.condition);
+		writer.writeNode(this.body);
+	}
+
 	@Override
 	public Value<?> visit(Context context) throws CodeError, ThrowValue {
-		context.pushLoopScope(this.syntaxPosition);
+		context.pushScope(this.syntaxPosition, this.localNames);
+		StackTable loopScope = context.getStackTable();
 		
-		while (this.keepRunning()) {
+		while (this.keepRunning(context)) {
 			Value<?> conditionValue = this.condition.visit(context);
 			if (!(conditionValue instanceof BooleanValue booleanValue)) {
 				throw new CodeError(CodeError.ErrorType.ILLEGAL_OPERATION_ERROR, "Condition must result in either 'true' or 'false'", this.syntaxPosition);
@@ -35,11 +66,11 @@ public class WhileNode extends Node {
 				this.body.visit(context);
 			}
 			catch (ThrowValue.Break tv) {
-				context.moveScope(context.getBreakScope());
+				context.moveScope(loopScope);
 				break;
 			}
 			catch (ThrowValue.Continue tv) {
-				context.moveScope(context.getContinueScope());
+				context.moveScope(loopScope);
 			}
 		}
 		
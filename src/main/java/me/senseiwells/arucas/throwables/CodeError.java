@@ -37,6 +37,7 @@ public class CodeError extends Exception {
 		ILLEGAL_OPERATION_ERROR ("Illegal Operation Error"),
 		EXPECTED_CHAR_ERROR     ("Expected Character Error"),
 		INTERRUPTED_ERROR       ("Program interrupted"),
+		STEP_LIMIT_ERROR        ("Step limit reached"),
 		RUNTIME_ERROR           ("Runtime Error"),
 		STOP                    ("Program stopped");
 
@@ -1,6 +1,7 @@
 package me.senseiwells.arucas.throwables;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.utils.CallStack;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.utils.Position;
 import me.senseiwells.arucas.utils.StackTable;
@@ -9,10 +10,18 @@ import java.util.Iterator;
 
 public class RuntimeError extends CodeError {
 	private final Context context;
+	private final StackTable stackTable;
+	private final CallStack callStack;
 	
 	public RuntimeError(String details, ISyntax syntaxHolder, Context context) {
 		super(ErrorType.RUNTIME_ERROR, details, syntaxHolder);
 		this.context = context;
+		// Calls are popped while the error is thrown so we keep where it was thrown
+		this.stackTable = context == null ? null : context.getStackTable();
+		this.callStack = context == null ? null : context.getCallStack().copy();
+		if (context != null && context.getMetrics() != null) {
+			context.getMetrics().countRuntimeError();
+		}
 	}
 
 	public RuntimeError(String details, ISyntax syntaxHolder) {
@@ -29,19 +38,35 @@ public class RuntimeError extends CodeError {
 			startPos.fileName, startPos.line + 1, startPos.column + 1, context.getDisplayName()
 		));
 		
+		StackTable stackTable = this.stackTable != null ? this.stackTable : context.getStackTable();
+		CallStack callStack = this.callStack != null ? this.callStack : context.getCallStack();
+		int call = callStack.size() - 1;
+		
 		// Iterate through all branches before this point
-		Iterator<StackTable> iterator = context.getStackTable().iterator();
+		Iterator<StackTable> iterator = stackTable.iterator();
 		while (iterator.hasNext()) {
 			StackTable table = iterator.next();
-			Position pos = table.getPosition().getStartPos();
-			result.append("File: %s, Line: %d, Column: %d, In: %s\n".formatted(
-				pos.fileName, pos.line + 1, pos.column + 1, context.getDisplayName()
-			));
+			
+			// Calls made from this table go before it
+			for (; call >= 0 && callStack.getCaller(call) == table; call--) {
+				this.appendPosition(result, callStack.getPosition(call), context);
+			}
+			this.appendPosition(result, table.getPosition(), context);
+		}
+		for (; call >= 0; call--) {
+			this.appendPosition(result, callStack.getPosition(call), context);
 		}
 		
 		return "Traceback (most recent call first): '%s'\n%s".formatted(this.getMessage(), result);
 	}
 	
+	private void appendPosition(StringBuilder result, ISyntax syntaxPosition, Context context) {
+		Position pos = syntaxPosition.getStartPos();
+		result.append("File: %s, Line: %d, Column: %d, In: %s\n".formatted(
+			pos.fileName, pos.line + 1, pos.column + 1, context.getDisplayName()
+		));
+	}
+	
 	@Override
 	public String toString(Context context) {
 		// If this context is not null use that instead
@@ -2,18 +2,26 @@ package me.senseiwells.arucas.throwables;
 
 import me.senseiwells.arucas.values.Value;
 
+/**
+ * These are used for control flow so they do not fill in a stack trace,
+ * break and continue carry no state so a single instance is reused.
+ */
 public abstract class ThrowValue extends Exception {
 	ThrowValue(String message) {
-		super(message);
+		super(message, null, false, false);
 	}
 	
 	public static class Continue extends ThrowValue {
+		public static final Continue INSTANCE = new Continue();
+		
 		public Continue() {
 			super("Cannot continue here");
 		}
 	}
 	
 	public static class Break extends ThrowValue {
+		public static final Break INSTANCE = new Break();
+		
 		public Break() {
 			super("Cannot break here");
 		}
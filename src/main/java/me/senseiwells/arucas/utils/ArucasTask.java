@@ -0,0 +1,73 @@
+package me.senseiwells.arucas.utils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * A handle to a task started by the thread handler, the task
+ * can be joined or cancelled whether or not it has started yet.
+ */
+public class ArucasTask {
+	private final long id;
+	private final FutureTask<Void> future;
+
+	public ArucasTask(long id, Runnable runnable, Consumer<ArucasTask> onDone) {
+		this.id = id;
+		this.future = new FutureTask<>(runnable, null) {
+			@Override
+			protected void done() {
+				onDone.accept(ArucasTask.this);
+			}
+		};
+	}
+
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * The runnable that should be given to the executor
+	 */
+	public Runnable getRunnable() {
+		return this.future;
+	}
+
+	public boolean isDone() {
+		return this.future.isDone();
+	}
+
+	/**
+	 * Interrupts the task if it is running and stops it from running if it has not started
+	 */
+	public void cancel() {
+		this.future.cancel(true);
+	}
+
+	/**
+	 * Waits for the task to finish, returns immediately if it was cancelled
+	 */
+	public void join() throws InterruptedException {
+		try {
+			this.future.get();
+		}
+		catch (ExecutionException | CancellationException ignored) { }
+	}
+
+	/**
+	 * Waits at most the given time, returns true if the task finished
+	 */
+	public boolean join(long timeout, TimeUnit unit) throws InterruptedException {
+		try {
+			this.future.get(timeout, unit);
+		}
+		catch (ExecutionException | CancellationException ignored) { }
+		catch (TimeoutException e) {
+			return false;
+		}
+		return true;
+	}
+}
@@ -1,21 +1,582 @@
 package me.senseiwells.arucas.utils;
 
+import me.senseiwells.arucas.values.NumberValue;
 import me.senseiwells.arucas.values.Value;
 
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Custom implementation of a value array list.
  * This list is thread safe and will not throw any ConcurrentModificationExceptions.
  *
- * Impl: This class has been tested and does not throw any exceptions.
+ * Impl: The values are guarded by a read write lock so appending does not copy the list.
+ * While every element is a number they are packed into a double array, the first other
+ * value inflates the list into an ArrayList of values.
+ * <p>
+ * Iterators are read only snapshots of the list taken when they are created, they
+ * do not see later changes and their remove, set and add methods throw
+ * UnsupportedOperationException. Taking the snapshot copies the list, so every
+ * iterator and call to {@link #forEach} costs O(n), numbers are only boxed as
+ * they are reached. Use {@link #get} and {@link #size} to read a few elements of a large list.
+ * <p>
+ * The predicates, operators and comparators given to {@link #removeIf}, {@link #replaceAll}
+ * and {@link #sort} are run on a snapshot without holding the lock, since they may be
+ * script functions that wait for other threads using this list. The result is applied
+ * under the lock if the list has not changed since the snapshot, otherwise they are run again.
  */
-public class ArucasValueList extends CopyOnWriteArrayList<Value<?>> {
+public class ArucasValueList extends AbstractList<Value<?>> implements RandomAccess {
+	private static final double[] EMPTY_NUMBERS = new double[0];
+
+	private final Lock readLock;
+	private final Lock writeLock;
+	// Exactly one of these is not null
+	private double[] numbers;
+	private List<Value<?>> values;
+	private int numberCount;
+	// Incremented by every change, so bulk changes can see if the list changed while their callback ran
+	private int version;
+
 	public ArucasValueList() {
-	
+		ReadWriteLock lock = new ReentrantReadWriteLock();
+		this.readLock = lock.readLock();
+		this.writeLock = lock.writeLock();
+		this.numbers = EMPTY_NUMBERS;
 	}
-	
+
 	public ArucasValueList(ArucasValueList list) {
-		super(list);
+		this();
+		this.addAll(list);
+	}
+
+	/**
+	 * Returns true if the list is packed as numbers
+	 */
+	public boolean isNumberList() {
+		this.readLock.lock();
+		try {
+			return this.numbers != null;
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		this.readLock.lock();
+		try {
+			return this.numbers != null ? this.numberCount : this.values.size();
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.size() == 0;
+	}
+
+	@Override
+	public Value<?> get(int index) {
+		this.readLock.lock();
+		try {
+			if (this.numbers != null) {
+				return NumberValue.of(this.numbers[Objects.checkIndex(index, this.numberCount)]);
+			}
+			return this.values.get(index);
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	@Override
+	public Value<?> set(int index, Value<?> element) {
+		this.writeLock.lock();
+		try {
+			if (this.numbers != null) {
+				Objects.checkIndex(index, this.numberCount);
+				if (element instanceof NumberValue numberValue) {
+					double old = this.numbers[index];
+					this.numbers[index] = numberValue.value;
+					this.version++;
+					return NumberValue.of(old);
+				}
+				this.inflate();
+			}
+			Value<?> old = this.values.set(index, element);
+			this.version++;
+			return old;
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean add(Value<?> element) {
+		this.writeLock.lock();
+		try {
+			if (this.numbers != null) {
+				if (element instanceof NumberValue numberValue) {
+					this.ensureCapacity(this.numberCount + 1);
+					this.numbers[this.numberCount++] = numberValue.value;
+					this.version++;
+					return true;
+				}
+				this.inflate();
+			}
+			this.version++;
+			return this.values.add(element);
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void add(int index, Value<?> element) {
+		this.writeLock.lock();
+		try {
+			if (this.numbers != null) {
+				Objects.checkIndex(index, this.numberCount + 1);
+				if (element instanceof NumberValue numberValue) {
+					this.ensureCapacity(this.numberCount + 1);
+					System.arraycopy(this.numbers, index, this.numbers, index + 1, this.numberCount - index);
+					this.numbers[index] = numberValue.value;
+					this.numberCount++;
+					this.version++;
+					return;
+				}
+				this.inflate();
+			}
+			this.values.add(index, element);
+			this.version++;
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Value<?>> collection) {
+		return this.insertAll(-1, collection);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends Value<?>> collection) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return this.insertAll(index, collection);
+	}
+
+	/**
+	 * Inserts the values at the index, or at the end if the index is -1
+	 */
+	private boolean insertAll(int index, Collection<? extends Value<?>> collection) {
+		// Copy first so we never hold both locks when adding another ArucasValueList
+		double[] otherNumbers = collection instanceof ArucasValueList otherList ? otherList.copyNumbers() : null;
+		Value<?>[] otherValues = otherNumbers == null ? collection.toArray(Value<?>[]::new) : null;
+		this.writeLock.lock();
+		try {
+			int size = this.numbers != null ? this.numberCount : this.values.size();
+			int insertAt = index == -1 ? size : Objects.checkIndex(index, size + 1);
+			this.version++;
+			if (this.numbers != null && otherNumbers == null) {
+				otherNumbers = toNumbers(otherValues);
+				if (otherNumbers == null) {
+					this.inflate();
+				}
+			}
+			if (this.numbers != null) {
+				this.ensureCapacity(this.numberCount + otherNumbers.length);
+				System.arraycopy(this.numbers, insertAt, this.numbers, insertAt + otherNumbers.length, this.numberCount - insertAt);
+				System.arraycopy(otherNumbers, 0, this.numbers, insertAt, otherNumbers.length);
+				this.numberCount += otherNumbers.length;
+				return otherNumbers.length > 0;
+			}
+			List<Value<?>> added = otherValues != null ? Arrays.asList(otherValues) : boxNumbers(otherNumbers, otherNumbers.length);
+			return this.values.addAll(insertAt, added);
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public Value<?> remove(int index) {
+		this.writeLock.lock();
+		try {
+			if (this.numbers != null) {
+				double old = this.numbers[Objects.checkIndex(index, this.numberCount)];
+				System.arraycopy(this.numbers, index + 1, this.numbers, index, this.numberCount - index - 1);
+				this.numberCount--;
+				this.version++;
+				return NumberValue.of(old);
+			}
+			Value<?> old = this.values.remove(index);
+			this.version++;
+			return old;
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(Object object) {
+		this.writeLock.lock();
+		try {
+			if (this.numbers != null) {
+				int index = this.indexOf(object);
+				if (index == -1) {
+					return false;
+				}
+				this.remove(index);
+				return true;
+			}
+			if (this.values.remove(object)) {
+				this.version++;
+				return true;
+			}
+			return false;
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super Value<?>> filter) {
+		Objects.requireNonNull(filter);
+		while (true) {
+			int version = this.getVersion();
+			Value<?>[] values = this.toArray(Value<?>[]::new);
+			Value<?>[] kept = new Value<?>[values.length];
+			int keptCount = 0;
+			for (Value<?> value : values) {
+				if (!filter.test(value)) {
+					kept[keptCount++] = value;
+				}
+			}
+			if (keptCount == values.length) {
+				return false;
+			}
+			if (this.replaceContents(version, Arrays.copyOf(kept, keptCount))) {
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> collection) {
+		// Copy first so we never hold both locks when the other collection is an ArucasValueList
+		List<Object> others = Arrays.asList(collection.toArray());
+		return this.removeIf(others::contains);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> collection) {
+		List<Object> others = Arrays.asList(collection.toArray());
+		return this.removeIf(value -> !others.contains(value));
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<Value<?>> operator) {
+		Objects.requireNonNull(operator);
+		while (true) {
+			int version = this.getVersion();
+			Value<?>[] values = this.toArray(Value<?>[]::new);
+			for (int i = 0; i < values.length; i++) {
+				values[i] = operator.apply(values[i]);
+			}
+			if (this.replaceContents(version, values)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void sort(Comparator<? super Value<?>> comparator) {
+		while (true) {
+			int version = this.getVersion();
+			Value<?>[] values = this.toArray(Value<?>[]::new);
+			Arrays.sort(values, comparator);
+			if (this.replaceContents(version, values)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Replaces every value in the list if the list has not changed since the version,
+	 * returns false if it has. A packed list stays packed if the values are all numbers
+	 */
+	private boolean replaceContents(int version, Value<?>[] values) {
+		this.writeLock.lock();
+		try {
+			if (this.version != version) {
+				return false;
+			}
+			double[] numbers = this.numbers != null ? toNumbers(values) : null;
+			if (numbers != null) {
+				this.numbers = numbers;
+				this.numberCount = numbers.length;
+			}
+			else {
+				this.values = new ArrayList<>(Arrays.asList(values));
+				this.numbers = null;
+				this.numberCount = 0;
+			}
+			this.version++;
+			return true;
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	private int getVersion() {
+		this.readLock.lock();
+		try {
+			return this.version;
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	/**
+	 * This is used by sub lists to clear a range
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		this.writeLock.lock();
+		try {
+			if (this.numbers != null) {
+				Objects.checkFromToIndex(fromIndex, toIndex, this.numberCount);
+				System.arraycopy(this.numbers, toIndex, this.numbers, fromIndex, this.numberCount - toIndex);
+				this.numberCount -= toIndex - fromIndex;
+				this.version++;
+				return;
+			}
+			this.values.subList(fromIndex, toIndex).clear();
+			this.version++;
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		this.writeLock.lock();
+		try {
+			this.numbers = EMPTY_NUMBERS;
+			this.numberCount = 0;
+			this.values = null;
+			this.version++;
+		}
+		finally {
+			this.writeLock.unlock();
+		}
+	}
+
+	@Override
+	public int indexOf(Object object) {
+		this.readLock.lock();
+		try {
+			if (this.numbers != null) {
+				if (object instanceof NumberValue numberValue) {
+					long bits = Double.doubleToLongBits(numberValue.value);
+					for (int i = 0; i < this.numberCount; i++) {
+						if (Double.doubleToLongBits(this.numbers[i]) == bits) {
+							return i;
+						}
+					}
+				}
+				return -1;
+			}
+			return this.values.indexOf(object);
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	@Override
+	public int lastIndexOf(Object object) {
+		this.readLock.lock();
+		try {
+			if (this.numbers != null) {
+				if (object instanceof NumberValue numberValue) {
+					long bits = Double.doubleToLongBits(numberValue.value);
+					for (int i = this.numberCount - 1; i >= 0; i--) {
+						if (Double.doubleToLongBits(this.numbers[i]) == bits) {
+							return i;
+						}
+					}
+				}
+				return -1;
+			}
+			return this.values.lastIndexOf(object);
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean contains(Object object) {
+		return this.indexOf(object) != -1;
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> collection) {
+		Object[] others = collection.toArray();
+		this.readLock.lock();
+		try {
+			for (Object other : others) {
+				if (this.indexOf(other) == -1) {
+					return false;
+				}
+			}
+			return true;
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	@Override
+	public Object[] toArray() {
+		this.readLock.lock();
+		try {
+			return this.numbers != null ? boxNumbers(this.numbers, this.numberCount).toArray() : this.values.toArray();
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	@Override
+	public <T> T[] toArray(T[] array) {
+		this.readLock.lock();
+		try {
+			return this.numbers != null ? boxNumbers(this.numbers, this.numberCount).toArray(array) : this.values.toArray(array);
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a copy of the numbers in the list, or null if the list has other values
+	 */
+	public double[] copyNumbers() {
+		this.readLock.lock();
+		try {
+			return this.numbers != null ? Arrays.copyOf(this.numbers, this.numberCount) : null;
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a read only copy of the values in the list, later changes to the list are not seen.
+	 * This costs O(n), numbers are copied unboxed and only boxed when they are read
+	 */
+	public List<Value<?>> snapshot() {
+		this.readLock.lock();
+		try {
+			if (this.numbers != null) {
+				return new NumberSnapshot(Arrays.copyOf(this.numbers, this.numberCount));
+			}
+			return Collections.unmodifiableList(Arrays.asList(this.values.toArray(Value<?>[]::new)));
+		}
+		finally {
+			this.readLock.unlock();
+		}
+	}
+
+	@Override
+	public Iterator<Value<?>> iterator() {
+		return this.snapshot().iterator();
+	}
+
+	@Override
+	public ListIterator<Value<?>> listIterator(int index) {
+		return this.snapshot().listIterator(index);
+	}
+
+	@Override
+	public Spliterator<Value<?>> spliterator() {
+		return this.snapshot().spliterator();
+	}
+
+	@Override
+	public void forEach(Consumer<? super Value<?>> action) {
+		this.snapshot().forEach(action);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > this.numbers.length) {
+			this.numbers = Arrays.copyOf(this.numbers, Math.max(capacity, Math.max(10, this.numbers.length + (this.numbers.length >> 1))));
+		}
+	}
+
+	private void inflate() {
+		this.values = boxNumbers(this.numbers, this.numberCount);
+		this.numbers = null;
+		this.numberCount = 0;
+	}
+
+	private static List<Value<?>> boxNumbers(double[] numbers, int count) {
+		List<Value<?>> values = new ArrayList<>(Math.max(count, 10));
+		for (int i = 0; i < count; i++) {
+			values.add(NumberValue.of(numbers[i]));
+		}
+		return values;
+	}
+
+	private static double[] toNumbers(Value<?>[] values) {
+		double[] numbers = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			if (!(values[i] instanceof NumberValue numberValue)) {
+				return null;
+			}
+			numbers[i] = numberValue.value;
+		}
+		return numbers;
+	}
+
+	/**
+	 * A read only list over copied numbers that boxes each number when it is read
+	 */
+	private static class NumberSnapshot extends AbstractList<Value<?>> implements RandomAccess {
+		private final double[] numbers;
+
+		private NumberSnapshot(double[] numbers) {
+			this.numbers = numbers;
+		}
+
+		@Override
+		public Value<?> get(int index) {
+			return NumberValue.of(this.numbers[Objects.checkIndex(index, this.numbers.length)]);
+		}
+
+		@Override
+		public int size() {
+			return this.numbers.length;
+		}
 	}
 }
@@ -0,0 +1,81 @@
+package me.senseiwells.arucas.utils;
+
+import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.values.functions.FunctionValue;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the position of every call that is currently running so tracebacks
+ * can show where functions were called from without pushing a scope per call.
+ * <p>
+ * Each call remembers the table it was made from, this is
+ * used to put the call in the right place in a traceback.
+ * A call stack belongs to a single context so it is not thread safe.
+ */
+public class CallStack {
+	private ISyntax[] positions;
+	private StackTable[] callers;
+	private FunctionValue[] functions;
+	private int size;
+
+	public CallStack() {
+		this(16);
+	}
+
+	private CallStack(int capacity) {
+		this.positions = new ISyntax[capacity];
+		this.callers = new StackTable[capacity];
+		this.functions = new FunctionValue[capacity];
+	}
+
+	public void push(ISyntax position, StackTable caller, FunctionValue function) {
+		if (this.size == this.positions.length) {
+			this.positions = Arrays.copyOf(this.positions, this.size * 2);
+			this.callers = Arrays.copyOf(this.callers, this.size * 2);
+			this.functions = Arrays.copyOf(this.functions, this.size * 2);
+		}
+		this.positions[this.size] = position;
+		this.callers[this.size] = caller;
+		this.functions[this.size] = function;
+		this.size++;
+	}
+
+	public void pop() {
+		this.size--;
+		this.positions[this.size] = null;
+		this.callers[this.size] = null;
+		this.functions[this.size] = null;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Index 0 is the first call that was made
+	 */
+	public ISyntax getPosition(int index) {
+		return this.positions[index];
+	}
+
+	public StackTable getCaller(int index) {
+		return this.callers[index];
+	}
+
+	public FunctionValue getFunction(int index) {
+		return this.functions[index];
+	}
+
+	/**
+	 * Returns a copy of the calls that are currently running
+	 */
+	public CallStack copy() {
+		CallStack copy = new CallStack(Math.max(this.size, 1));
+		System.arraycopy(this.positions, 0, copy.positions, 0, this.size);
+		System.arraycopy(this.callers, 0, copy.callers, 0, this.size);
+		System.arraycopy(this.functions, 0, copy.functions, 0, this.size);
+		copy.size = this.size;
+		return copy;
+	}
+}
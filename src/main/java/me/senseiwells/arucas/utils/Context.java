@@ -1,5 +1,7 @@
 package me.senseiwells.arucas.utils;
 
+import me.senseiwells.arucas.api.ArucasThreadHandler;
+import me.senseiwells.arucas.api.IArucasStepHandler;
 import me.senseiwells.arucas.values.classes.AbstractClassDefinition;
 import me.senseiwells.arucas.api.IArucasExtension;
 import me.senseiwells.arucas.api.IArucasOutput;
@@ -7,8 +9,10 @@ import me.senseiwells.arucas.api.ISyntax;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.values.Value;
 import me.senseiwells.arucas.values.functions.AbstractBuiltInFunction;
+import me.senseiwells.arucas.values.functions.FunctionValue;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Runtime context class of the programming language
@@ -21,6 +25,12 @@ public class Context {
 	private final String displayName;
 	private final Context parentContext;
 	private StackTable stackTable;
+	private final CallStack callStack;
+	private ArucasThreadHandler threadHandler;
+	private Profiler profiler;
+	private Metrics metrics;
+	private Profiler.State profilerState;
+	private StepBudget stepBudget;
 	private boolean isDebug;
 	private boolean suppressDeprecated;
 
@@ -31,6 +41,7 @@ public class Context {
 		
 		this.displayName = displayName;
 		this.stackTable = new StackTable();
+		this.callStack = new CallStack();
 		this.parentContext = parentContext;
 		
 		for (IArucasExtension extension : extensions) {
@@ -51,10 +62,15 @@ public class Context {
 	private Context(Context branch, StackTable stackTable) {
 		this.displayName = branch.displayName;
 		this.stackTable = stackTable;
+		this.callStack = new CallStack();
 		this.arucasOutput = branch.arucasOutput;
 		this.extensions = branch.extensions;
 		this.builtInFunctions = branch.builtInFunctions;
 		this.parentContext = branch.parentContext;
+		this.threadHandler = branch.threadHandler;
+		this.stepBudget = branch.stepBudget;
+		this.setProfiler(branch.profiler);
+		this.metrics = branch.metrics;
 	}
 
 	@SuppressWarnings("unused")
@@ -76,7 +92,24 @@ public class Context {
 	}
 	
 	public Context createChildContext(String displayName) {
-		return new Context(displayName, this, this.extensions, this.stackTable.getRoot().classDefinitions.values(), this.arucasOutput);
+		Context context = new Context(displayName, this, this.extensions, this.getRootClassDefinitions(), this.arucasOutput);
+		context.threadHandler = this.threadHandler;
+		context.stepBudget = this.stepBudget;
+		context.setProfiler(this.profiler);
+		context.metrics = this.metrics;
+		return context;
+	}
+	
+	public List<IArucasExtension> getExtensions() {
+		return this.extensions;
+	}
+	
+	/**
+	 * Returns the class definitions defined in the root table,
+	 * these are the classes that a program is linked against.
+	 */
+	public Collection<AbstractClassDefinition> getRootClassDefinitions() {
+		return this.stackTable.getClassDefinitions();
 	}
 	
 	/**
@@ -94,51 +127,131 @@ public class Context {
 		return this.stackTable;
 	}
 	
-	public StackTable getBreakScope() {
-		return this.stackTable.getBreakScope();
+	public CallStack getCallStack() {
+		return this.callStack;
 	}
 	
-	public StackTable getContinueScope() {
-		return this.stackTable.getContinueScope();
+	/**
+	 * Adds a call to the call stack, this must be followed by a call to {@link #popCall()}
+	 */
+	public void pushCall(ISyntax syntaxPosition, FunctionValue function) {
+		this.callStack.push(syntaxPosition, this.stackTable, function);
 	}
 	
-	public StackTable getReturnScope() {
-		return this.stackTable.getReturnScope();
+	public void popCall() {
+		if (this.profiler != null) {
+			this.profiler.sample(this, null);
+		}
+		this.callStack.pop();
 	}
 	
 	public void pushScope(ISyntax syntaxPosition) {
-		this.stackTable = new StackTable(this.stackTable, syntaxPosition, false, false, false);
+		this.pushScope(syntaxPosition, null);
+	}
+	
+	public void pushScope(ISyntax syntaxPosition, String[] localNames) {
+		this.pushTable(new StackTable(this.stackTable, syntaxPosition, localNames));
 	}
 	
-	public void pushLoopScope(ISyntax syntaxPosition) {
-		this.stackTable = new StackTable(this.stackTable, syntaxPosition, true, true, false);
+	public void pushFunctionScope(ISyntax syntaxPosition, String[] localNames) {
+		this.pushTable(new FunctionStackTable(this.stackTable, syntaxPosition, localNames));
 	}
 	
-	public void pushSwitchScope(ISyntax syntaxPosition) {
-		this.stackTable = new StackTable(this.stackTable, syntaxPosition, true, false, false);
+	public void pushFunctionScope(ISyntax syntaxPosition, String[] localNames, Value<?>[] frame) {
+		this.pushTable(new FunctionStackTable(this.stackTable, syntaxPosition, localNames, frame));
 	}
 	
-	public void pushFunctionScope(ISyntax syntaxPosition) {
-		this.stackTable = new FunctionStackTable(this.stackTable, syntaxPosition);
+	private void pushTable(StackTable stackTable) {
+		if (this.metrics != null) {
+			this.metrics.countScopePush();
+		}
+		this.stackTable = stackTable;
 	}
 	
 	public void popScope() {
 		this.stackTable = this.stackTable.getParentTable();
 	}
 	
+	/**
+	 * Moves back to a table that was pushed earlier and has not been popped,
+	 * nodes keep the table they pushed so they can unwind to it after a jump.
+	 */
 	public void moveScope(StackTable stackTable) {
-		// We do not want to jump to an arbitrary stackTable
-		
-		Iterator<StackTable> iter = this.stackTable.iterator();
-		while (iter.hasNext()) {
-			StackTable table = iter.next();
-			if (table == stackTable) {
-				this.stackTable = table;
-				return;
-			}
+		this.stackTable = stackTable;
+	}
+	
+	/**
+	 * Returns the handler that is running this context, or null if
+	 * it is not being run by a handler, threads are started on this handler
+	 */
+	public ArucasThreadHandler getThreadHandler() {
+		return this.threadHandler;
+	}
+	
+	public void setThreadHandler(ArucasThreadHandler threadHandler) {
+		this.threadHandler = threadHandler;
+	}
+	
+	/**
+	 * Limits how many steps the context can take, loops and calls each take a step.
+	 * When the steps are used the handler is asked for more, if there is no handler
+	 * the script is stopped. A budget that is not positive means there is no limit.
+	 * Branches and child contexts share the budget of the context they were made from,
+	 * so scripts on other threads or run by the script take from the same steps.
+	 */
+	public void setStepBudget(long steps, IArucasStepHandler stepHandler) {
+		this.stepBudget = steps > 0 ? new StepBudget(steps, stepHandler) : null;
+	}
+	
+	public void setStepBudget(long steps) {
+		this.setStepBudget(steps, null);
+	}
+	
+	public long getRemainingSteps() {
+		return this.stepBudget == null ? -1 : Math.max(this.stepBudget.remaining.get(), 0);
+	}
+	
+	/**
+	 * Takes a step from the budget, without a budget this never runs out.
+	 * @throws CodeError if the budget has run out and the handler gives no more steps
+	 */
+	public void step(ISyntax syntaxPosition) throws CodeError {
+		if (this.profiler != null) {
+			this.profiler.sample(this, syntaxPosition);
 		}
-		
-		// This should throw an exception
+		StepBudget stepBudget = this.stepBudget;
+		if (stepBudget != null && stepBudget.remaining.decrementAndGet() < 0) {
+			stepBudget.refill(this, syntaxPosition);
+		}
+	}
+	
+	/**
+	 * Sets the profiler that records the calls and lines this context runs,
+	 * this is null by default, branches and child contexts use the same profiler
+	 */
+	public void setProfiler(Profiler profiler) {
+		this.profiler = profiler;
+		this.profilerState = profiler == null ? null : new Profiler.State();
+	}
+	
+	public Profiler getProfiler() {
+		return this.profiler;
+	}
+
+	Profiler.State getProfilerState() {
+		return this.profilerState;
+	}
+	
+	/**
+	 * Sets the registry that counts what this context does, this is
+	 * null by default, branches and child contexts use the same registry
+	 */
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	public Metrics getMetrics() {
+		return this.metrics;
 	}
 	
 	public void setDebug(boolean debug) {
@@ -189,6 +302,10 @@ public class Context {
 		this.stackTable.set(name, value);
 	}
 	
+	public void setVariable(String name, int depth, int slot, Value<?> value) {
+		this.stackTable.set(name, depth, slot, value);
+	}
+	
 	public void setLocal(String name, Value<?> value) {
 		this.stackTable.setLocal(name, value);
 	}
@@ -196,6 +313,10 @@ public class Context {
 	public Value<?> getVariable(String name) {
 		return this.stackTable.get(name);
 	}
+	
+	public Value<?> getVariable(String name, int depth, int slot) {
+		return this.stackTable.get(name, depth, slot);
+	}
 
 	public void printDeprecated(String message) {
 		if (!this.suppressDeprecated) {
@@ -207,10 +328,28 @@ public class Context {
 		return this.stackTable.getClassDefinition(name);
 	}
 	
+	public AbstractClassDefinition getRootClassDefinition(String name) {
+		return this.stackTable.getRoot().getClassDefinition(name);
+	}
+	
 	public void addClassDefinition(AbstractClassDefinition definition) {
 		this.stackTable.addClassDefinition(definition);
 	}
 
+	/**
+	 * Adds a class declared by a script, declaring it again replaces it
+	 */
+	public void declareClassDefinition(AbstractClassDefinition definition) {
+		this.stackTable.declareClassDefinition(definition);
+	}
+
+	/**
+	 * Returns the class only if it is one of the classes this context was built with
+	 */
+	public AbstractClassDefinition getBuiltInClassDefinition(String name) {
+		return this.stackTable.getBuiltInClassDefinition(name);
+	}
+
 	public AbstractBuiltInFunction<?> getBuiltInFunction(String methodName, int parameters) {
 		for (IArucasExtension extension : this.extensions) {
 			for (AbstractBuiltInFunction<?> function : extension.getDefinedFunctions()) {
@@ -235,4 +374,36 @@ public class Context {
 		
 		System.out.println(sb);
 	}
+
+	/**
+	 * The steps shared by a context and every branch and child context made from it
+	 */
+	private static class StepBudget {
+		private final long steps;
+		private final IArucasStepHandler stepHandler;
+		private final AtomicLong remaining;
+
+		private StepBudget(long steps, IArucasStepHandler stepHandler) {
+			this.steps = steps;
+			this.stepHandler = stepHandler;
+			this.remaining = new AtomicLong(steps);
+		}
+
+		private synchronized void refill(Context context, ISyntax syntaxPosition) throws CodeError {
+			// Another thread may have been given more steps while this one waited
+			if (this.remaining.get() > 0 && this.remaining.decrementAndGet() >= 0) {
+				return;
+			}
+			long steps = this.stepHandler == null ? 0 : this.stepHandler.onBudgetUsed(context);
+			if (steps <= 0) {
+				this.remaining.set(0);
+				throw new CodeError(
+					CodeError.ErrorType.STEP_LIMIT_ERROR,
+					"Script used all of its %d steps".formatted(this.steps),
+					syntaxPosition
+				);
+			}
+			this.remaining.set(steps - 1);
+		}
+	}
 }
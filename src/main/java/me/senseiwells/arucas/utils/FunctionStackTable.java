@@ -7,55 +7,41 @@ import me.senseiwells.arucas.values.Value;
  * This class is a special symbol table that only allows changing global and local variables.
  */
 public class FunctionStackTable extends StackTable {
-	private final StackTable root;
-	
-	public FunctionStackTable(StackTable parent, ISyntax syntaxPosition) {
-		super(parent, syntaxPosition, false, false, true);
-		this.root = parent.getRoot();
+	public FunctionStackTable(StackTable parent, ISyntax syntaxPosition, String[] localNames) {
+		super(parent, syntaxPosition, localNames);
+	}
+
+	/**
+	 * The frame holds the values of the local names, the arguments are already in it
+	 */
+	public FunctionStackTable(StackTable parent, ISyntax syntaxPosition, String[] localNames, Value<?>[] frame) {
+		super(parent, syntaxPosition, localNames, frame);
 	}
 	
 	@Override
 	public Value<?> get(String name) {
-		Value<?> value = this.symbolMap.get(name);
-		return value == null ? this.root.get(name) : value;
+		Value<?> value = this.getLocal(name);
+		return value == null ? this.getRoot().get(name) : value;
 	}
 	
 	@Override
 	public void set(String name, Value<?> value) {
-		if (this.root.get(name) != null) {
-			this.root.set(name, value);
+		StackTable root = this.getRoot();
+		if (root.get(name) != null) {
+			root.set(name, value);
 			return;
 		}
-		this.symbolMap.put(name, value);
+		this.setLocal(name, value);
 	}
 	
 	@Override
 	public StackTable getParent(String name) {
-		return this.root.get(name) != null ? this.root : null;
-	}
-	
-	@Override
-	public StackTable getRoot() {
-		return this.root;
-	}
-	
-	@Override
-	public StackTable getBreakScope() {
-		return null;
-	}
-	
-	@Override
-	public StackTable getContinueScope() {
-		return null;
-	}
-	
-	@Override
-	public StackTable getReturnScope() {
-		return this;
+		StackTable root = this.getRoot();
+		return root.get(name) != null ? root : null;
 	}
 	
 	@Override
 	public String toString() {
-		return "FunctionStackTable%s".formatted(this.symbolMap);
+		return "FunctionStackTable%s".formatted(this.getSymbolMap());
 	}
 }
@@ -0,0 +1,193 @@
+package me.senseiwells.arucas.utils;
+
+import me.senseiwells.arucas.api.IArucasMetrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what the interpreter does for the contexts it is set on, contexts do
+ * not have metrics by default. A registry can be shared by many contexts and
+ * threads, and can be published through JMX with {@link #register}.
+ * <p>
+ * Values do not know which context created them, so the values allocated are
+ * counted for the whole JVM and every registry reports the same counts. Counting
+ * is turned on by starting the JVM with {@code -Darucas.countValues=true}, the
+ * flag is a constant so values cost nothing extra when it is off. {@link #reset}
+ * only resets the counters of one registry, use {@link #resetValuesAllocated}
+ * to reset the value counts.
+ */
+public class Metrics implements IArucasMetrics {
+	/**
+	 * Whether the values allocated in this JVM are counted
+	 */
+	public static final boolean COUNTING_VALUES = Boolean.getBoolean("arucas.countValues");
+	private static final Map<Class<?>, LongAdder> VALUES = new ConcurrentHashMap<>();
+
+	private final LongAdder functionCalls = new LongAdder();
+	private final LongAdder scopePushes = new LongAdder();
+	private final LongAdder runtimeErrors = new LongAdder();
+	private final LongAdder threadsStarted = new LongAdder();
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+	private final LongAdder runs = new LongAdder();
+	private final LongAdder lexNanos = new LongAdder();
+	private final LongAdder parseNanos = new LongAdder();
+
+	public void countFunctionCall() {
+		this.functionCalls.increment();
+	}
+
+	public void countScopePush() {
+		this.scopePushes.increment();
+	}
+
+	public void countRuntimeError() {
+		this.runtimeErrors.increment();
+	}
+
+	public void countThreadStarted() {
+		this.threadsStarted.increment();
+	}
+
+	/**
+	 * Counts a member lookup that was found in a node's inline cache
+	 */
+	public void countCacheHit() {
+		this.cacheHits.increment();
+	}
+
+	public void countCacheMiss() {
+		this.cacheMisses.increment();
+	}
+
+	/**
+	 * Records the time it took to lex and parse a script that was run
+	 */
+	public void countRun(long lexNanos, long parseNanos) {
+		this.runs.increment();
+		this.lexNanos.add(lexNanos);
+		this.parseNanos.add(parseNanos);
+	}
+
+	@Override
+	public long getFunctionCalls() {
+		return this.functionCalls.sum();
+	}
+
+	@Override
+	public long getScopePushes() {
+		return this.scopePushes.sum();
+	}
+
+	@Override
+	public long getRuntimeErrors() {
+		return this.runtimeErrors.sum();
+	}
+
+	@Override
+	public long getThreadsStarted() {
+		return this.threadsStarted.sum();
+	}
+
+	@Override
+	public long getCacheHits() {
+		return this.cacheHits.sum();
+	}
+
+	@Override
+	public long getCacheMisses() {
+		return this.cacheMisses.sum();
+	}
+
+	@Override
+	public long getRuns() {
+		return this.runs.sum();
+	}
+
+	@Override
+	public long getLexNanos() {
+		return this.lexNanos.sum();
+	}
+
+	@Override
+	public long getParseNanos() {
+		return this.parseNanos.sum();
+	}
+
+	/**
+	 * Returns the values allocated in this JVM by class name, this is
+	 * empty unless {@link #COUNTING_VALUES} is on
+	 */
+	@Override
+	public Map<String, Long> getValuesAllocated() {
+		Map<String, Long> values = new TreeMap<>();
+		for (Map.Entry<Class<?>, LongAdder> entry : VALUES.entrySet()) {
+			values.merge(entry.getKey().getSimpleName(), entry.getValue().sum(), Long::sum);
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the current value of every counter, values are prefixed with 'values.'
+	 */
+	public Map<String, Long> getSnapshot() {
+		Map<String, Long> snapshot = new LinkedHashMap<>();
+		snapshot.put("functionCalls", this.getFunctionCalls());
+		snapshot.put("scopePushes", this.getScopePushes());
+		snapshot.put("runtimeErrors", this.getRuntimeErrors());
+		snapshot.put("threadsStarted", this.getThreadsStarted());
+		snapshot.put("cacheHits", this.getCacheHits());
+		snapshot.put("cacheMisses", this.getCacheMisses());
+		snapshot.put("runs", this.getRuns());
+		snapshot.put("lexNanos", this.getLexNanos());
+		snapshot.put("parseNanos", this.getParseNanos());
+		for (Map.Entry<String, Long> entry : this.getValuesAllocated().entrySet()) {
+			snapshot.put("values." + entry.getKey(), entry.getValue());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Resets the counters of this registry, the value counts are for
+	 * the whole JVM so they are reset by {@link #resetValuesAllocated}
+	 */
+	public void reset() {
+		this.functionCalls.reset();
+		this.scopePushes.reset();
+		this.runtimeErrors.reset();
+		this.threadsStarted.reset();
+		this.cacheHits.reset();
+		this.cacheMisses.reset();
+		this.runs.reset();
+		this.lexNanos.reset();
+		this.parseNanos.reset();
+	}
+
+	/**
+	 * Publishes the counters to the platform MBean server under the given name
+	 */
+	public ObjectName register(String name) throws JMException {
+		ObjectName objectName = new ObjectName("me.senseiwells.arucas:type=Metrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(this, IArucasMetrics.class, true), objectName);
+		return objectName;
+	}
+
+	public static void resetValuesAllocated() {
+		VALUES.clear();
+	}
+
+	/**
+	 * Counts a value, this is only called by values when {@link #COUNTING_VALUES} is on
+	 */
+	public static void countValue(Class<?> valueClass) {
+		VALUES.computeIfAbsent(valueClass, c -> new LongAdder()).increment();
+	}
+}
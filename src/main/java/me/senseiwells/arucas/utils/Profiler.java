@@ -0,0 +1,187 @@
+package me.senseiwells.arucas.utils;
+
+import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.values.functions.FunctionValue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records where the contexts it is set on spend their time.
+ * <p>
+ * Every call is counted and timed, the self time of a call does not include
+ * the calls it made so recursive functions are not counted twice.
+ * <p>
+ * Lines are sampled, when a context takes a step after the sample interval has
+ * passed the time since its last sample is given to the line of the step and
+ * the functions that are being called.
+ * A profiler can be shared by many contexts and threads.
+ */
+public class Profiler {
+	private final long sampleInterval;
+	private final Map<ISyntax, FunctionEntry> functions = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> lines = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> stacks = new ConcurrentHashMap<>();
+
+	public Profiler(long sampleInterval, TimeUnit unit) {
+		this.sampleInterval = unit.toNanos(sampleInterval);
+	}
+
+	public Profiler() {
+		this(1, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * This must be called before a function is called and the
+	 * result passed to {@link #endCall} when the call finishes
+	 */
+	public long startCall(Context context) {
+		State state = context.getProfilerState();
+		long outerChildNanos = state.childNanos;
+		state.childNanos = 0;
+		return outerChildNanos;
+	}
+
+	public void endCall(Context context, FunctionValue function, long startNanos, long outerChildNanos) {
+		State state = context.getProfilerState();
+		long nanos = System.nanoTime() - startNanos;
+		FunctionEntry entry = this.functions.computeIfAbsent(function.syntaxPosition, p -> new FunctionEntry(getLabel(function)));
+		entry.calls.increment();
+		entry.nanos.add(nanos);
+		entry.selfNanos.add(nanos - state.childNanos);
+		state.childNanos = outerChildNanos + nanos;
+	}
+
+	/**
+	 * Takes a sample of the context if the interval has passed, the position is
+	 * the line being run or null if the context is returning from its last call
+	 */
+	void sample(Context context, ISyntax syntaxPosition) {
+		long now = System.nanoTime();
+		State state = context.getProfilerState();
+		long last = state.lastSample;
+		if (last == 0) {
+			state.lastSample = now;
+			return;
+		}
+		long elapsed = now - last;
+		if (elapsed < this.sampleInterval) {
+			return;
+		}
+		state.lastSample = now;
+
+		CallStack callStack = context.getCallStack();
+		int size = callStack.size();
+		if (syntaxPosition == null) {
+			if (size == 0) {
+				return;
+			}
+			syntaxPosition = callStack.getPosition(size - 1);
+		}
+
+		StringBuilder stack = new StringBuilder(context.getDisplayName().isEmpty() ? "<root>" : context.getDisplayName());
+		for (int i = 0; i < size; i++) {
+			stack.append(';').append(getLabel(callStack.getFunction(i)));
+		}
+		String line = getLabel(syntaxPosition);
+		stack.append(';').append(line);
+
+		this.lines.computeIfAbsent(line, l -> new LongAdder()).add(elapsed);
+		this.stacks.computeIfAbsent(stack.toString(), s -> new LongAdder()).add(elapsed);
+	}
+
+	/**
+	 * Returns the functions sorted by their self time, then the sampled lines sorted by their time
+	 */
+	public String getReport() {
+		StringBuilder report = new StringBuilder();
+		report.append("%-48s %10s %12s %12s %12s\n".formatted("Function", "Calls", "Self ms", "Total ms", "Mean us"));
+
+		List<FunctionEntry> functions = new ArrayList<>(this.functions.values());
+		functions.sort(Comparator.comparingLong((FunctionEntry entry) -> entry.selfNanos.sum()).reversed());
+		for (FunctionEntry entry : functions) {
+			long calls = entry.calls.sum();
+			long nanos = entry.nanos.sum();
+			report.append("%-48s %10d %12.3f %12.3f %12.3f\n".formatted(
+				entry.label, calls, entry.selfNanos.sum() / 1_000_000.0, nanos / 1_000_000.0, calls == 0 ? 0.0 : nanos / 1_000.0 / calls
+			));
+		}
+
+		List<Map.Entry<String, Long>> lines = sortedSums(this.lines);
+		long total = 0;
+		for (Map.Entry<String, Long> entry : lines) {
+			total += entry.getValue();
+		}
+		report.append("\n%-48s %12s %8s\n".formatted("Line", "Sampled ms", "%"));
+		for (Map.Entry<String, Long> entry : lines) {
+			report.append("%-48s %12.3f %8.2f\n".formatted(
+				entry.getKey(), entry.getValue() / 1_000_000.0, entry.getValue() * 100.0 / total
+			));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Returns the sampled stacks in the collapsed format read by flame graph tools,
+	 * each line is the frames separated by semicolons and then the time in microseconds
+	 */
+	public String getCollapsedStacks() {
+		StringBuilder collapsed = new StringBuilder();
+		for (Map.Entry<String, Long> entry : sortedSums(this.stacks)) {
+			long micros = entry.getValue() / 1_000;
+			if (micros > 0) {
+				collapsed.append(entry.getKey()).append(' ').append(micros).append('\n');
+			}
+		}
+		return collapsed.toString();
+	}
+
+	public void reset() {
+		this.functions.clear();
+		this.lines.clear();
+		this.stacks.clear();
+	}
+
+	private static List<Map.Entry<String, Long>> sortedSums(Map<String, LongAdder> map) {
+		List<Map.Entry<String, Long>> sums = new ArrayList<>();
+		for (Map.Entry<String, LongAdder> entry : map.entrySet()) {
+			sums.add(Map.entry(entry.getKey(), entry.getValue().sum()));
+		}
+		sums.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+		return sums;
+	}
+
+	private static String getLabel(FunctionValue function) {
+		String name = function.getName().isEmpty() ? "<anonymous>" : function.getName();
+		return "%s (%s)".formatted(name, getLabel(function.syntaxPosition));
+	}
+
+	private static String getLabel(ISyntax syntaxPosition) {
+		Position position = syntaxPosition.getStartPos();
+		return "%s:%d".formatted(position.fileName, position.line + 1);
+	}
+
+	/**
+	 * What the profiler keeps for one context, a context gets a new state whenever its profiler is set
+	 */
+	static class State {
+		private long lastSample;
+		private long childNanos;
+	}
+
+	private static class FunctionEntry {
+		private final String label;
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder selfNanos = new LongAdder();
+
+		private FunctionEntry(String label) {
+			this.label = label;
+		}
+	}
+}
@@ -6,28 +6,45 @@ import me.senseiwells.arucas.values.Value;
 
 import java.util.*;
 
+/**
+ * Most tables only hold resolved locals or nothing at all, so the symbol
+ * map is only created when a variable is declared by name. Class definitions
+ * are only ever stored in the root table, the classes the context was built
+ * with are kept apart from the classes declared by scripts.
+ */
 public class StackTable {
-	protected final Map<String, Value<?>> symbolMap;
-	protected final Map<String, AbstractClassDefinition> classDefinitions;
+	private static final Value<?>[] NO_LOCALS = new Value<?>[0];
+
+	private Map<String, Value<?>> symbolMap;
+	private Map<String, AbstractClassDefinition> classDefinitions;
+	private Map<String, AbstractClassDefinition> declaredClasses;
+	private final String[] localNames;
+	private final Value<?>[] locals;
 	private final StackTable parentTable;
+	private final StackTable root;
 	private final ISyntax syntaxPosition;
 	
-	protected final boolean canContinue;
-	protected final boolean canBreak;
-	protected final boolean canReturn;
-	
-	public StackTable(StackTable parent, ISyntax syntaxPosition, boolean canBreak, boolean canContinue, boolean canReturn) {
-		this.symbolMap = new HashMap<>();
-		this.classDefinitions = new HashMap<>();
+	public StackTable(StackTable parent, ISyntax syntaxPosition, String[] localNames) {
+		this(parent, syntaxPosition, localNames, localNames == null ? null : localNames.length == 0 ? NO_LOCALS : new Value<?>[localNames.length]);
+	}
+
+	/**
+	 * The locals array holds the values of the local names, it may already contain values
+	 */
+	protected StackTable(StackTable parent, ISyntax syntaxPosition, String[] localNames, Value<?>[] locals) {
+		this.localNames = localNames;
+		this.locals = locals;
 		this.parentTable = parent;
+		this.root = parent == null ? this : parent.getRoot();
 		this.syntaxPosition = syntaxPosition;
-		this.canContinue = canContinue;
-		this.canReturn = canReturn;
-		this.canBreak = canBreak;
+	}
+
+	public StackTable(StackTable parent, ISyntax syntaxPosition) {
+		this(parent, syntaxPosition, null);
 	}
 
 	public StackTable() {
-		this(null, ISyntax.empty(), false, false, false);
+		this(null, ISyntax.empty());
 	}
 	
 	/**
@@ -41,7 +58,7 @@ public class StackTable {
 	 * Returns the value of the variable name.
 	 */
 	public Value<?> get(String name) {
-		Value<?> value = this.symbolMap.get(name);
+		Value<?> value = this.getLocal(name);
 		if (value != null) {
 			return value;
 		}
@@ -59,10 +76,10 @@ public class StackTable {
 	public void set(String name, Value<?> value) {
 		StackTable parentTable = this.getParent(name);
 		if (parentTable != null) {
-			parentTable.symbolMap.put(name, value);
+			parentTable.setLocal(name, value);
 		}
 		else {
-			this.symbolMap.put(name, value);
+			this.setLocal(name, value);
 		}
 	}
 	
@@ -70,15 +87,75 @@ public class StackTable {
 	 * Change the value of a local variable called name.
 	 */
 	public void setLocal(String name, Value<?> value) {
+		int slot = this.getSlot(name);
+		if (slot != -1) {
+			this.locals[slot] = value;
+			return;
+		}
+		if (this.symbolMap == null) {
+			this.symbolMap = new HashMap<>();
+		}
 		this.symbolMap.put(name, value);
 	}
 	
+	/**
+	 * Returns the value of a variable that was resolved to a slot,
+	 * if the slot has not been assigned yet we look the variable up by name.
+	 */
+	public Value<?> get(String name, int depth, int slot) {
+		Value<?> value = this.getTable(depth).locals[slot];
+		return value != null ? value : this.get(name);
+	}
+	
+	/**
+	 * Change the value of a variable that was resolved to a slot,
+	 * if the slot has not been assigned yet it might be defined further up.
+	 */
+	public void set(String name, int depth, int slot, Value<?> value) {
+		StackTable table = this.getTable(depth);
+		if (table.locals[slot] != null) {
+			table.locals[slot] = value;
+			return;
+		}
+		this.set(name, value);
+	}
+	
+	/**
+	 * Returns the value of the variable name only if it is stored in this table.
+	 */
+	protected final Value<?> getLocal(String name) {
+		int slot = this.getSlot(name);
+		if (slot != -1) {
+			return this.locals[slot];
+		}
+		return this.symbolMap == null ? null : this.symbolMap.get(name);
+	}
+	
+	private int getSlot(String name) {
+		if (this.localNames != null) {
+			for (int i = 0; i < this.localNames.length; i++) {
+				if (this.localNames[i].equals(name)) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+	
+	private StackTable getTable(int depth) {
+		StackTable table = this;
+		for (int i = 0; i < depth; i++) {
+			table = table.parentTable;
+		}
+		return table;
+	}
+	
 	/**
 	 * Returns the first parent that contains the value name.
 	 */
 	public StackTable getParent(String name) {
 		if (this.parentTable != null) {
-			if (this.parentTable.symbolMap.get(name) != null) {
+			if (this.parentTable.getLocal(name) != null) {
 				return this.parentTable;
 			}
 			else {
@@ -89,46 +166,95 @@ public class StackTable {
 		return null;
 	}
 	
+	/**
+	 * Returns true if any variables or classes have been declared in this table.
+	 */
+	public boolean hasDeclarations() {
+		if (this.symbolMap != null && !this.symbolMap.isEmpty()) {
+			return true;
+		}
+		if (this.locals != null) {
+			for (Value<?> local : this.locals) {
+				if (local != null) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
 	public AbstractClassDefinition getClassDefinition(String name) {
-		AbstractClassDefinition definition = this.classDefinitions.get(name);
+		AbstractClassDefinition definition = this.getBuiltInClassDefinition(name);
 		if (definition != null) {
 			return definition;
 		}
-		
-		return this.parentTable != null ? this.parentTable.getClassDefinition(name) : null;
+		Map<String, AbstractClassDefinition> declaredClasses = this.root.declaredClasses;
+		return declaredClasses == null ? null : declaredClasses.get(name);
+	}
+
+	/**
+	 * Returns the class only if it is one of the classes the context was built with
+	 */
+	public AbstractClassDefinition getBuiltInClassDefinition(String name) {
+		Map<String, AbstractClassDefinition> classDefinitions = this.root.classDefinitions;
+		return classDefinitions == null ? null : classDefinitions.get(name);
 	}
 
 	public boolean hasClassDefinition(String name) {
-		return this.classDefinitions.containsKey(name);
+		return this.getClassDefinition(name) != null;
 	}
 	
+	/**
+	 * Adds one of the classes the context is built with, these are always added to the root table.
+	 */
 	public void addClassDefinition(AbstractClassDefinition definition) {
-		this.classDefinitions.put(definition.getName(), definition);
+		StackTable root = this.root;
+		if (root.classDefinitions == null) {
+			root.classDefinitions = new HashMap<>();
+		}
+		root.classDefinitions.put(definition.getName(), definition);
+	}
+
+	/**
+	 * Adds a class declared by a script to the root table, wherever it was declared.
+	 * Declaring a class again replaces it so the same script can be run more than once,
+	 * a program declaring the same class twice is rejected by {@link me.senseiwells.arucas.core.Program#link}.
+	 */
+	public void declareClassDefinition(AbstractClassDefinition definition) {
+		StackTable root = this.root;
+		if (root.declaredClasses == null) {
+			root.declaredClasses = new HashMap<>();
+		}
+		root.declaredClasses.put(definition.getName(), definition);
+	}
+	
+	/**
+	 * Returns the classes the context was built with and then the classes declared by scripts
+	 */
+	public Collection<AbstractClassDefinition> getClassDefinitions() {
+		Map<String, AbstractClassDefinition> classDefinitions = this.root.classDefinitions;
+		Map<String, AbstractClassDefinition> declaredClasses = this.root.declaredClasses;
+		if (declaredClasses == null) {
+			return classDefinitions == null ? List.of() : classDefinitions.values();
+		}
+		List<AbstractClassDefinition> definitions = new ArrayList<>(declaredClasses.values());
+		if (classDefinitions != null) {
+			definitions.addAll(0, classDefinitions.values());
+		}
+		return definitions;
 	}
 
 	/**
 	 * Returns the root table.
 	 */
 	public StackTable getRoot() {
-		return this.parentTable != null ? this.parentTable.getRoot() : this;
+		return this.root;
 	}
 	
 	public StackTable getParentTable() {
 		return this.parentTable;
 	}
 	
-	public StackTable getReturnScope() {
-		return this.canReturn ? this : this.parentTable != null ? this.parentTable.getReturnScope() : null;
-	}
-	
-	public StackTable getBreakScope() {
-		return this.canBreak ? this : this.parentTable != null ? this.parentTable.getBreakScope() : null;
-	}
-	
-	public StackTable getContinueScope() {
-		return this.canContinue ? this : this.parentTable != null ? this.parentTable.getContinueScope() : null;
-	}
-	
 	public Iterator<StackTable> iterator() {
 		return new Iterator<>() {
 			private StackTable object = StackTable.this;
@@ -147,9 +273,16 @@ public class StackTable {
 		};
 	}
 
+	/**
+	 * Returns the variables declared by name in this table.
+	 */
+	protected final Map<String, Value<?>> getSymbolMap() {
+		return this.symbolMap == null ? Map.of() : this.symbolMap;
+	}
+
 	@Override
 	public int hashCode() {
-		return this.symbolMap.hashCode();
+		return this.getSymbolMap().hashCode();
 	}
 
 	@Override
@@ -158,10 +291,10 @@ public class StackTable {
 			return true;
 		}
 		if (object instanceof StackTable otherTable) {
-			if (this.symbolMap.size() != otherTable.symbolMap.size()) {
+			if (this.getSymbolMap().size() != otherTable.getSymbolMap().size()) {
 				return false;
 			}
-			for (Map.Entry<String, Value<?>> entry : this.symbolMap.entrySet()) {
+			for (Map.Entry<String, Value<?>> entry : this.getSymbolMap().entrySet()) {
 				if (!otherTable.get(entry.getKey()).equals(entry.getValue())) {
 					return false;
 				}
@@ -173,6 +306,6 @@ public class StackTable {
 
 	@Override
 	public String toString() {
-		return "%s%s".formatted(this.parentTable == null ? "RootTable":"StackTable", this.symbolMap);
+		return "%s%s".formatted(this.parentTable == null ? "RootTable":"StackTable", this.getSymbolMap());
 	}
 }
@@ -12,14 +12,29 @@ import java.util.List;
 import java.util.Set;
 
 public class ListValue extends Value<ArucasValueList> {
+	private static final Set<MemberFunction> LIST_FUNCTIONS = Value.withValueFunctions(
+		new MemberFunction("getIndex", "index", ListValue::getListIndex, "Use '<List>.get(index)'"),
+		new MemberFunction("get", "index", ListValue::getListIndex),
+		new MemberFunction("removeIndex", "index", ListValue::removeListIndex, "Use '<List>.remove(index)'"),
+		new MemberFunction("remove", "index", ListValue::removeListIndex),
+		new MemberFunction("append", "value", ListValue::appendList),
+		new MemberFunction("insert", List.of("value", "index"), ListValue::insertList),
+		new MemberFunction("concat", "otherList", ListValue::concatList),
+		new MemberFunction("contains", "value", ListValue::listContains),
+		new MemberFunction("containsAll", "otherList", ListValue::containsAll),
+		new MemberFunction("isEmpty", ListValue::isEmpty)
+	);
 
 	public ListValue(ArucasValueList value) {
 		super(value);
 	}
 
+	/**
+	 * The list is shared between copies anyway so the same value is returned
+	 */
 	@Override
 	public ListValue copy() {
-		return new ListValue(this.value);
+		return this;
 	}
 
 	@Override
@@ -54,75 +69,76 @@ public class ListValue extends Value<ArucasValueList> {
 
 	@Override
 	protected Set<MemberFunction> getDefinedFunctions() {
-		Set<MemberFunction> memberFunctions = super.getDefinedFunctions();
-		memberFunctions.addAll(Set.of(
-			new MemberFunction("getIndex", "index", this::getListIndex, "Use '<List>.get(index)'"),
-			new MemberFunction("get", "index", this::getListIndex),
-			new MemberFunction("removeIndex", "index", this::removeListIndex, "Use '<List>.remove(index)'"),
-			new MemberFunction("remove", "index", this::removeListIndex),
-			new MemberFunction("append", "value", this::appendList),
-			new MemberFunction("insert", List.of("value", "index"), this::insertList),
-			new MemberFunction("concat", "otherList", this::concatList),
-			new MemberFunction("contains", "value", this::listContains),
-			new MemberFunction("containsAll", "otherList", this::containsAll),
-			new MemberFunction("isEmpty", this::isEmpty)
-		));
-		return memberFunctions;
+		return LIST_FUNCTIONS;
 	}
 
-	private synchronized Value<?> getListIndex(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> getListIndex(Context context, MemberFunction function) throws CodeError {
+		ListValue thisValue = function.getThis(context, ListValue.class);
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		int index = numberValue.value.intValue();
-		if (index >= this.value.size() || index < 0) {
+		int index = (int) numberValue.value;
+		// Checking the size first would race with other threads, the list checks the index for us
+		try {
+			return thisValue.value.get(index);
+		}
+		catch (IndexOutOfBoundsException e) {
 			throw function.throwInvalidParameterError("Index is out of bounds", context);
 		}
-		return this.value.get(index);
 	}
 
-	private synchronized Value<?> removeListIndex(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> removeListIndex(Context context, MemberFunction function) throws CodeError {
+		ListValue thisValue = function.getThis(context, ListValue.class);
 		NumberValue numberValue = function.getParameterValueOfType(context, NumberValue.class, 0);
-		int index = numberValue.value.intValue();
-		if (index >= this.value.size() || index < 0) {
+		int index = (int) numberValue.value;
+		try {
+			return thisValue.value.remove(index);
+		}
+		catch (IndexOutOfBoundsException e) {
 			throw function.throwInvalidParameterError("Index is out of bounds", context);
 		}
-		return this.value.remove(index);
 	}
 
-	private synchronized Value<?> appendList(Context context, MemberFunction function) {
+	private static Value<?> appendList(Context context, MemberFunction function) throws CodeError {
+		ListValue thisValue = function.getThis(context, ListValue.class);
 		Value<?> value = function.getParameterValue(context, 0);
-		this.value.add(value);
-		return this;
+		thisValue.value.add(value);
+		return thisValue;
 	}
 
-	private synchronized Value<?> insertList(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> insertList(Context context, MemberFunction function) throws CodeError {
+		ListValue thisValue = function.getThis(context, ListValue.class);
 		Value<?> value = function.getParameterValue(context, 0);
-		int index = function.getParameterValueOfType(context, NumberValue.class, 1).value.intValue();
-		int len = this.value.size();
-		if (index > len || index < 0) {
+		int index = (int) function.getParameterValueOfType(context, NumberValue.class, 1).value;
+		try {
+			thisValue.value.add(index, value);
+		}
+		catch (IndexOutOfBoundsException e) {
 			throw new RuntimeError("Index is out of bounds", function.syntaxPosition, context);
 		}
-		this.value.add(index, value);
-		return this;
+		return thisValue;
 	}
 
-	private synchronized Value<?> concatList(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> concatList(Context context, MemberFunction function) throws CodeError {
+		ListValue thisValue = function.getThis(context, ListValue.class);
 		ListValue list2 = function.getParameterValueOfType(context, ListValue.class, 0);
-		this.value.addAll(list2.value);
-		return this;
+		thisValue.value.addAll(list2.value);
+		return thisValue;
 	}
 
-	private synchronized BooleanValue listContains(Context context, MemberFunction function) {
+	private static BooleanValue listContains(Context context, MemberFunction function) throws CodeError {
+		ListValue thisValue = function.getThis(context, ListValue.class);
 		Value<?> value = function.getParameterValue(context, 0);
-		return BooleanValue.of(this.value.contains(value));
+		return BooleanValue.of(thisValue.value.contains(value));
 	}
 
-	private synchronized BooleanValue containsAll(Context context, MemberFunction function) throws CodeError {
+	private static BooleanValue containsAll(Context context, MemberFunction function) throws CodeError {
+		ListValue thisValue = function.getThis(context, ListValue.class);
 		ListValue otherList = function.getParameterValueOfType(context, ListValue.class, 0);
-		return BooleanValue.of(this.value.containsAll(otherList.value));
+		return BooleanValue.of(thisValue.value.containsAll(otherList.value));
 	}
 
-	private synchronized BooleanValue isEmpty(Context context, MemberFunction function) {
-		return BooleanValue.of(this.value.isEmpty());
+	private static BooleanValue isEmpty(Context context, MemberFunction function) throws CodeError {
+		ListValue thisValue = function.getThis(context, ListValue.class);
+		return BooleanValue.of(thisValue.value.isEmpty());
 	}
 
 	public static class ArucasListClass extends ArucasClassExtension {
@@ -14,6 +14,18 @@ import java.util.Map;
 import java.util.Set;
 
 public class MapValue extends Value<ArucasValueMap> {
+	private static final Set<MemberFunction> MAP_FUNCTIONS = Value.withValueFunctions(
+		new MemberFunction("get", "key", MapValue::mapGet),
+		new MemberFunction("getKeys", MapValue::mapGetKeys),
+		new MemberFunction("getValues", MapValue::mapGetValues),
+		new MemberFunction("put", List.of("key", "value"), MapValue::mapPut),
+		new MemberFunction("putIfAbsent", List.of("key", "value"), MapValue::mapPutIfAbsent),
+		new MemberFunction("putAll", "anotherMap", MapValue::mapPutAll),
+		new MemberFunction("remove", "key", MapValue::mapRemove),
+		new MemberFunction("clear", MapValue::mapClear),
+		new MemberFunction("isEmpty", MapValue::isEmpty)
+	);
+
 	public MapValue(ArucasValueMap value) {
 		super(value);
 	}
@@ -54,84 +66,81 @@ public class MapValue extends Value<ArucasValueMap> {
 
 	@Override
 	protected Set<MemberFunction> getDefinedFunctions() {
-		Set<MemberFunction> memberFunctions = super.getDefinedFunctions();
-		memberFunctions.addAll(Set.of(
-			new MemberFunction("get", "key", this::mapGet),
-			new MemberFunction("getKeys", this::mapGetKeys),
-			new MemberFunction("getValues", this::mapGetValues),
-			new MemberFunction("put", List.of("key", "value"), this::mapPut),
-			new MemberFunction("putIfAbsent", List.of("key", "value"), this::mapPutIfAbsent),
-			new MemberFunction("putAll", "anotherMap", this::mapPutAll),
-			new MemberFunction("remove", "key", this::mapRemove),
-			new MemberFunction("clear", this::mapClear),
-			new MemberFunction("isEmpty", this::isEmpty)
-		));
-		return memberFunctions;
+		return MAP_FUNCTIONS;
 	}
 
-	private Value<?> mapGet(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> mapGet(Context context, MemberFunction function) throws CodeError {
+		MapValue thisValue = function.getThis(context, MapValue.class);
 		Value<?> key = function.getParameterValue(context, 0);
-		if (key.value == null) {
+		if (key instanceof NullValue) {
 			throw new RuntimeError("Cannot get null from a map", function.syntaxPosition, context);
 		}
-		Value<?> value = this.value.get(key);
+		Value<?> value = thisValue.value.get(key);
 		return value == null ? NullValue.NULL : value.newCopy();
 	}
 
-	private Value<?> mapGetKeys(Context context, MemberFunction function) {
+	private static Value<?> mapGetKeys(Context context, MemberFunction function) throws CodeError {
+		MapValue thisValue = function.getThis(context, MapValue.class);
 		ArucasValueList valueList = new ArucasValueList();
-		this.value.keySet().forEach(value -> valueList.add(value.newCopy()));
+		thisValue.value.keySet().forEach(value -> valueList.add(value.newCopy()));
 		return new ListValue(valueList);
 	}
 
-	private Value<?> mapGetValues(Context context, MemberFunction function) {
+	private static Value<?> mapGetValues(Context context, MemberFunction function) throws CodeError {
+		MapValue thisValue = function.getThis(context, MapValue.class);
 		ArucasValueList valueList = new ArucasValueList();
-		valueList.addAll(this.value.values().stream().map(Value::newCopy).toList());
+		valueList.addAll(thisValue.value.values().stream().map(Value::newCopy).toList());
 		return new ListValue(valueList);
 	}
 
-	private Value<?> mapPut(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> mapPut(Context context, MemberFunction function) throws CodeError {
+		MapValue thisValue = function.getThis(context, MapValue.class);
 		Value<?> key = function.getParameterValue(context, 0);
 		Value<?> value = function.getParameterValue(context, 1);
-		if (key.value == null || value.value == null) {
+		if (key instanceof NullValue || value instanceof NullValue) {
 			throw new RuntimeError("Cannot put null into a map", function.syntaxPosition, context);
 		}
-		Value<?> returnValue = this.value.put(key, value);
+		Value<?> returnValue = thisValue.value.put(key, value);
 		return returnValue == null ? NullValue.NULL : returnValue.newCopy();
 	}
 
-	private Value<?> mapPutIfAbsent(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> mapPutIfAbsent(Context context, MemberFunction function) throws CodeError {
+		MapValue thisValue = function.getThis(context, MapValue.class);
 		Value<?> key = function.getParameterValue(context, 0);
 		Value<?> value = function.getParameterValue(context, 1);
-		if (key.value == null || value.value == null) {
+		if (key instanceof NullValue || value instanceof NullValue) {
 			throw new RuntimeError("Cannot put null into a map", function.syntaxPosition, context);
 		}
-		Value<?> returnValue = this.value.putIfAbsent(key, value);
+		Value<?> returnValue = thisValue.value.putIfAbsent(key, value);
 		return returnValue == null ? NullValue.NULL : returnValue.newCopy();
 	}
 
-	private Value<?> mapPutAll(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> mapPutAll(Context context, MemberFunction function) throws CodeError {
+		MapValue thisValue = function.getThis(context, MapValue.class);
 		MapValue anotherMapValue = function.getParameterValueOfType(context, MapValue.class, 0);
-		this.value.putAll(anotherMapValue.value);
+		thisValue.value.putAll(anotherMapValue.value);
 		return NullValue.NULL;
 	}
 
-	private Value<?> mapRemove(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> mapRemove(Context context, MemberFunction function) throws CodeError {
+		MapValue thisValue = function.getThis(context, MapValue.class);
 		Value<?> key = function.getParameterValue(context, 0);
-		if (key.value == null) {
+		if (key instanceof NullValue) {
 			throw new RuntimeError("Cannot remove null from a map", function.syntaxPosition, context);
 		}
-		Value<?> removedValue = this.value.remove(key);
+		Value<?> removedValue = thisValue.value.remove(key);
 		return removedValue == null ? NullValue.NULL : removedValue.newCopy();
 	}
 
-	private Value<?> mapClear(Context context, MemberFunction function) {
-		this.value.clear();
+	private static Value<?> mapClear(Context context, MemberFunction function) throws CodeError {
+		MapValue thisValue = function.getThis(context, MapValue.class);
+		thisValue.value.clear();
 		return NullValue.NULL;
 	}
 
-	private BooleanValue isEmpty(Context context, MemberFunction function) {
-		return BooleanValue.of(this.value.isEmpty());
+	private static BooleanValue isEmpty(Context context, MemberFunction function) throws CodeError {
+		MapValue thisValue = function.getThis(context, MapValue.class);
+		return BooleanValue.of(thisValue.value.isEmpty());
 	}
 
 	public static class ArucasMapClass extends ArucasClassExtension {
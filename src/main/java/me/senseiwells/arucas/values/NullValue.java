@@ -16,6 +16,11 @@ public class NullValue extends Value<Object> {
 		return this;
 	}
 
+	@Override
+	public boolean equals(Object other) {
+		return other == this;
+	}
+
 	@Override
 	public int hashCode() {
 		// This value is taken from Arrays.hash( ... )
@@ -12,17 +12,58 @@ import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 import java.util.Set;
 
+/**
+ * Numbers keep a primitive double next to the boxed value of {@link Value},
+ * arithmetic reads the primitive and code that reads the generic value still
+ * gets the number. Small whole numbers are cached so they are boxed only once.
+ */
 public class NumberValue extends Value<Double> {
+	private static final int CACHE_LOW = -128;
+	private static final int CACHE_HIGH = 1024;
+	private static final NumberValue[] CACHE = new NumberValue[CACHE_HIGH - CACHE_LOW + 1];
 	private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("#.############", DecimalFormatSymbols.getInstance(Locale.US));
+	private static final Set<MemberFunction> NUMBER_FUNCTIONS = Value.withValueFunctions(
+		new MemberFunction("round", NumberValue::numberRound),
+		new MemberFunction("ceil", NumberValue::numberCeil),
+		new MemberFunction("floor", NumberValue::numberFloor),
+		new MemberFunction("modulus", "otherNumber", NumberValue::numberModulus, "Use 'Math.mod(num1, num2)'"),
+		new MemberFunction("toRadians", NumberValue::toRadians, "Use 'Math.toRadians(num)'"),
+		new MemberFunction("toDegrees", NumberValue::toDegrees, "Use 'Math.toDegrees(num)'"),
+		new MemberFunction("absolute", NumberValue::numberAbsolute, "Use 'Math.abs(num)'"),
+		new MemberFunction("isInfinite", NumberValue::numberIsInfinite),
+		new MemberFunction("isNaN", NumberValue::numberIsNan)
+	);
 	
+	static {
+		for (int i = 0; i < CACHE.length; i++) {
+			CACHE[i] = new NumberValue(i + CACHE_LOW);
+		}
+	}
+
+	public final double value;
+
 	public NumberValue(double value) {
 		super(value);
+		this.value = value;
+	}
+
+	/**
+	 * Returns a number with the value, small whole numbers are
+	 * cached so counters and indexes do not need to allocate
+	 */
+	public static NumberValue of(double value) {
+		int intValue = (int) value;
+		// Negative zero is not cached because it is formatted differently
+		if (intValue == value && intValue >= CACHE_LOW && intValue <= CACHE_HIGH && (intValue != 0 || Double.doubleToRawLongBits(value) == 0L)) {
+			return CACHE[intValue - CACHE_LOW];
+		}
+		return new NumberValue(value);
 	}
 
 	@Override
 	public Value<?> addTo(Context context, Value<?> other, ISyntax syntaxPosition) throws CodeError {
 		if (other instanceof NumberValue otherValue) {
-			return new NumberValue(this.value + otherValue.value);
+			return NumberValue.of(this.value + otherValue.value);
 		}
 		return super.addTo(context, other, syntaxPosition);
 	}
@@ -30,7 +71,7 @@ public class NumberValue extends Value<Double> {
 	@Override
 	public Value<?> subtractBy(Context context, Value<?> other, ISyntax syntaxPosition) throws CodeError {
 		if (other instanceof NumberValue otherValue) {
-			return new NumberValue(this.value - otherValue.value);
+			return NumberValue.of(this.value - otherValue.value);
 		}
 		return super.subtractBy(context, other, syntaxPosition);
 	}
@@ -38,7 +79,7 @@ public class NumberValue extends Value<Double> {
 	@Override
 	public Value<?> multiplyBy(Context context, Value<?> other, ISyntax syntaxPosition) throws CodeError {
 		if (other instanceof NumberValue otherValue) {
-			return new NumberValue(this.value * otherValue.value);
+			return NumberValue.of(this.value * otherValue.value);
 		}
 		return super.multiplyBy(context, other, syntaxPosition);
 	}
@@ -46,7 +87,7 @@ public class NumberValue extends Value<Double> {
 	@Override
 	public Value<?> divideBy(Context context, Value<?> other, ISyntax syntaxPosition) throws CodeError {
 		if (other instanceof NumberValue otherValue) {
-			return new NumberValue(this.value / otherValue.value);
+			return NumberValue.of(this.value / otherValue.value);
 		}
 		return super.divideBy(context, other, syntaxPosition);
 	}
@@ -54,7 +95,7 @@ public class NumberValue extends Value<Double> {
 	@Override
 	public Value<?> powerBy(Context context, Value<?> other, ISyntax syntaxPosition) throws CodeError {
 		if (other instanceof NumberValue otherValue) {
-			return new NumberValue(Math.pow(this.value, otherValue.value));
+			return NumberValue.of(Math.pow(this.value, otherValue.value));
 		}
 		return super.powerBy(context, other, syntaxPosition);
 	}
@@ -79,9 +120,19 @@ public class NumberValue extends Value<Double> {
 		return this;
 	}
 	
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof NumberValue otherValue && Double.doubleToLongBits(this.value) == Double.doubleToLongBits(otherValue.value);
+	}
+	
 	@Override
 	public int hashCode() {
-		return this.value.hashCode();
+		return Double.hashCode(this.value);
+	}
+	
+	@Override
+	public String toString() {
+		return Double.toString(this.value);
 	}
 	
 	@Override
@@ -91,55 +142,53 @@ public class NumberValue extends Value<Double> {
 
 	@Override
 	protected Set<MemberFunction> getDefinedFunctions() {
-		Set<MemberFunction> memberFunctions = super.getDefinedFunctions();
-		memberFunctions.addAll(Set.of(
-			new MemberFunction("round", this::numberRound),
-			new MemberFunction("ceil", this::numberCeil),
-			new MemberFunction("floor", this::numberFloor),
-			new MemberFunction("modulus", "otherNumber", this::numberModulus, "Use 'Math.mod(num1, num2)'"),
-			new MemberFunction("toRadians", this::toRadians, "Use 'Math.toRadians(num)'"),
-			new MemberFunction("toDegrees", this::toDegrees, "Use 'Math.toDegrees(num)'"),
-			new MemberFunction("absolute", this::numberAbsolute, "Use 'Math.abs(num)'"),
-			new MemberFunction("isInfinite", this::numberIsInfinite),
-			new MemberFunction("isNaN", this::numberIsNan)
-		));
-		return memberFunctions;
+		return NUMBER_FUNCTIONS;
 	}
 
-	private NumberValue numberRound(Context context, MemberFunction function) {
-		return new NumberValue(Math.round(this.value));
+	private static NumberValue numberRound(Context context, MemberFunction function) throws CodeError {
+		NumberValue thisValue = function.getThis(context, NumberValue.class);
+		return NumberValue.of(Math.round(thisValue.value));
 	}
 
-	private NumberValue numberCeil(Context context, MemberFunction function) {
-		return new NumberValue(Math.ceil(this.value));
+	private static NumberValue numberCeil(Context context, MemberFunction function) throws CodeError {
+		NumberValue thisValue = function.getThis(context, NumberValue.class);
+		return NumberValue.of(Math.ceil(thisValue.value));
 	}
 
-	private NumberValue numberFloor(Context context, MemberFunction function) {
-		return new NumberValue(Math.floor(this.value));
+	private static NumberValue numberFloor(Context context, MemberFunction function) throws CodeError {
+		NumberValue thisValue = function.getThis(context, NumberValue.class);
+		return NumberValue.of(Math.floor(thisValue.value));
 	}
 
-	private NumberValue numberModulus(Context context, MemberFunction function) throws CodeError {
+	private static NumberValue numberModulus(Context context, MemberFunction function) throws CodeError {
+		NumberValue thisValue = function.getThis(context, NumberValue.class);
 		NumberValue otherNumber = function.getParameterValueOfType(context, NumberValue.class, 0);
-		return new NumberValue(this.value % otherNumber.value);
+		return NumberValue.of(thisValue.value % otherNumber.value);
 	}
 
-	private NumberValue numberAbsolute(Context context, MemberFunction function) {
-		return new NumberValue(Math.abs(this.value));
+	private static NumberValue numberAbsolute(Context context, MemberFunction function) throws CodeError {
+		NumberValue thisValue = function.getThis(context, NumberValue.class);
+		return NumberValue.of(Math.abs(thisValue.value));
 	}
-	private NumberValue toRadians(Context context, MemberFunction function) {
-		return new NumberValue(Math.toRadians(this.value));
+
+	private static NumberValue toRadians(Context context, MemberFunction function) throws CodeError {
+		NumberValue thisValue = function.getThis(context, NumberValue.class);
+		return NumberValue.of(Math.toRadians(thisValue.value));
 	}
 
-	private NumberValue toDegrees(Context context, MemberFunction function) {
-		return new NumberValue(Math.toDegrees(this.value));
+	private static NumberValue toDegrees(Context context, MemberFunction function) throws CodeError {
+		NumberValue thisValue = function.getThis(context, NumberValue.class);
+		return NumberValue.of(Math.toDegrees(thisValue.value));
 	}
 
-	private BooleanValue numberIsInfinite(Context context, MemberFunction function) {
-		return BooleanValue.of(this.value.isInfinite());
+	private static BooleanValue numberIsInfinite(Context context, MemberFunction function) throws CodeError {
+		NumberValue thisValue = function.getThis(context, NumberValue.class);
+		return BooleanValue.of(Double.isInfinite(thisValue.value));
 	}
 
-	private BooleanValue numberIsNan(Context context, MemberFunction function) {
-		return BooleanValue.of(this.value.isNaN());
+	private static BooleanValue numberIsNan(Context context, MemberFunction function) throws CodeError {
+		NumberValue thisValue = function.getThis(context, NumberValue.class);
+		return BooleanValue.of(Double.isNaN(thisValue.value));
 	}
 
 	public static class ArucasNumberClass extends ArucasClassExtension {
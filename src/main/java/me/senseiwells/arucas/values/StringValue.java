@@ -13,6 +13,20 @@ import java.util.Locale;
 import java.util.Set;
 
 public class StringValue extends Value<String> {
+	private static final Set<MemberFunction> STRING_FUNCTIONS = Value.withValueFunctions(
+		new MemberFunction("toList", StringValue::stringToList),
+		new MemberFunction("replaceAll", List.of("regex", "replace"), StringValue::stringReplaceAll),
+		new MemberFunction("uppercase", StringValue::stringUppercase),
+		new MemberFunction("lowercase", StringValue::stringLowercase),
+		new MemberFunction("toNumber", StringValue::stringToNumber),
+		new MemberFunction("formatted", "values", StringValue::stringFormatted),
+		new MemberFunction("containsString", List.of("otherString"), StringValue::stringContainsString, "Use '<String>.contains(otherString)'"),
+		new MemberFunction("contains", "otherString", StringValue::stringContainsString),
+		new MemberFunction("strip", StringValue::strip),
+		new MemberFunction("capitalise", StringValue::capitalise),
+		new MemberFunction("split", "delimited", StringValue::split)
+	);
+
 	public StringValue(String value) {
 		super(value);
 	}
@@ -34,62 +48,54 @@ public class StringValue extends Value<String> {
 
 	@Override
 	protected Set<MemberFunction> getDefinedFunctions() {
-		Set<MemberFunction> memberFunctions = super.getDefinedFunctions();
-		memberFunctions.addAll(Set.of(
-			new MemberFunction("toList", this::stringToList),
-			new MemberFunction("replaceAll", List.of("regex", "replace"), this::stringReplaceAll),
-			new MemberFunction("uppercase", this::stringUppercase),
-			new MemberFunction("lowercase", this::stringLowercase),
-			new MemberFunction("toNumber", this::stringToNumber),
-			new MemberFunction("formatted", "values", this::stringFormatted),
-			new MemberFunction("containsString", List.of("otherString"), this::stringContainsString, "Use '<String>.contains(otherString)'"),
-			new MemberFunction("contains", "otherString", this::stringContainsString),
-			new MemberFunction("strip", this::strip),
-			new MemberFunction("capitalise", this::capitalise),
-			new MemberFunction("split", "delimited", this::split)
-		));
-		return memberFunctions;
-	}
-
-	private Value<?> stringToList(Context context, MemberFunction function) {
+		return STRING_FUNCTIONS;
+	}
+
+	private static Value<?> stringToList(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
 		ArucasValueList stringList = new ArucasValueList();
-		for (char c : this.value.toCharArray()) {
+		for (char c : thisValue.value.toCharArray()) {
 			stringList.add(new StringValue(String.valueOf(c)));
 		}
 		return new ListValue(stringList);
 	}
 
-	private Value<?> stringReplaceAll(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> stringReplaceAll(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
 		StringValue remove = function.getParameterValueOfType(context, StringValue.class, 0);
 		StringValue replace = function.getParameterValueOfType(context, StringValue.class, 1);
-		return new StringValue(this.value.replaceAll(remove.value, replace.value));
+		return new StringValue(thisValue.value.replaceAll(remove.value, replace.value));
 	}
 
-	private Value<?> stringUppercase(Context context, MemberFunction function) {
-		return new StringValue(this.value.toUpperCase(Locale.ROOT));
+	private static Value<?> stringUppercase(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
+		return new StringValue(thisValue.value.toUpperCase(Locale.ROOT));
 	}
 
-	private Value<?> stringLowercase(Context context, MemberFunction function) {
-		return new StringValue(this.value.toLowerCase(Locale.ROOT));
+	private static Value<?> stringLowercase(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
+		return new StringValue(thisValue.value.toLowerCase(Locale.ROOT));
 	}
 
-	private Value<?> stringToNumber(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> stringToNumber(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
 		try {
-			return new NumberValue(Double.parseDouble(this.value));
+			return NumberValue.of(Double.parseDouble(thisValue.value));
 		}
 		catch (NumberFormatException e) {
 			throw new RuntimeError(
-				"Cannot parse %s as a NumberValue".formatted(this.getStringValue(context)),
+				"Cannot parse %s as a NumberValue".formatted(thisValue.getStringValue(context)),
 				function.syntaxPosition,
 				context
 			);
 		}
 	}
 
-	private Value<?> stringFormatted(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> stringFormatted(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
 		final Value<?>[] array = function.getParameterValueOfType(context, ListValue.class, 0).value.toArray(Value<?>[]::new);
 		int i = 0;
-		String string = this.value;
+		String string = thisValue.value;
 		while (string.contains("%s")) {
 			try {
 				string = string.replaceFirst("%s", array[i].toString());
@@ -102,28 +108,32 @@ public class StringValue extends Value<String> {
 		return new StringValue(string);
 	}
 
-	private Value<?> stringContainsString(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> stringContainsString(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
 		String otherString = function.getParameterValueOfType(context, StringValue.class, 0).value;
-		return BooleanValue.of(this.value.contains(otherString));
+		return BooleanValue.of(thisValue.value.contains(otherString));
 	}
 
-	private Value<?> strip(Context context, MemberFunction function) {
-		return new StringValue(this.value.strip());
+	private static Value<?> strip(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
+		return new StringValue(thisValue.value.strip());
 	}
 
-	private Value<?> capitalise(Context context, MemberFunction function) {
-		if (this.value.isEmpty()) {
-			return this;
+	private static Value<?> capitalise(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
+		if (thisValue.value.isEmpty()) {
+			return thisValue;
 		}
-		char[] chars = this.value.toCharArray();
+		char[] chars = thisValue.value.toCharArray();
 		chars[0] = Character.toUpperCase(chars[0]);
 		return new StringValue(new String(chars));
 	}
 
-	private Value<?> split(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> split(Context context, MemberFunction function) throws CodeError {
+		StringValue thisValue = function.getThis(context, StringValue.class);
 		String otherString = function.getParameterValueOfType(context, StringValue.class, 0).value;
 		ArucasValueList list = new ArucasValueList();
-		for (String string : this.value.split(otherString)) {
+		for (String string : thisValue.value.split(otherString)) {
 			list.add(new StringValue(string));
 		}
 		return new ListValue(list);
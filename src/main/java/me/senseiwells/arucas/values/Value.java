@@ -2,6 +2,7 @@ package me.senseiwells.arucas.values;
 
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.Metrics;
 import me.senseiwells.arucas.values.classes.ArucasClassValue;
 import me.senseiwells.arucas.values.functions.FunctionValue;
 import me.senseiwells.arucas.values.functions.MemberFunction;
@@ -12,12 +13,25 @@ import java.util.Objects;
 import java.util.Set;
 
 public abstract class Value<T> implements ValueOperations, MemberOperations {
+	/**
+	 * These functions are shared between every value, they
+	 * are created once and the receiver is passed in when called
+	 */
+	private static final Set<MemberFunction> VALUE_FUNCTIONS = Set.of(
+		new MemberFunction("instanceOf", "class", Value::instanceOf),
+		new MemberFunction("getValueType", Value::getValueType),
+		new MemberFunction("copy", (context, function) -> function.getThis(context, Value.class).newCopy()),
+		new MemberFunction("equals", "other", Value::equals),
+		new MemberFunction("toString", (context, function) -> new StringValue(function.getThis(context, Value.class).getStringValue(context)))
+	);
+
 	public final T value;
-	public final Set<MemberFunction> memberFunctions;
 	
 	public Value(T value) {
 		this.value = value;
-		this.memberFunctions = this.getDefinedFunctions();
+		if (Metrics.COUNTING_VALUES) {
+			Metrics.countValue(this.getClass());
+		}
 	}
 	
 	// Shallow copy
@@ -49,7 +63,7 @@ public abstract class Value<T> implements ValueOperations, MemberOperations {
 
 	@Override
 	public Iterable<? extends FunctionValue> getAllMembers() {
-		return this.memberFunctions;
+		return this.getDefinedFunctions();
 	}
 
 	/**
@@ -72,34 +86,43 @@ public abstract class Value<T> implements ValueOperations, MemberOperations {
 	}
 
 	@Override
-	public final String toString() {
+	public String toString() {
 		return this.value == null ? "null" : this.value.toString();
 	}
 
 
+	/**
+	 * Returns the member functions for this type of value, this should return
+	 * the same set for every value of the type. Member calls are only cached
+	 * for a set they have seen before, so a set made for each value is still
+	 * called correctly but is looked up every time
+	 */
 	protected Set<MemberFunction> getDefinedFunctions() {
-		Set<MemberFunction> memberFunctions = new HashSet<>();
-		memberFunctions.addAll(Set.of(
-			new MemberFunction("instanceOf", "class", this::instanceOf),
-			new MemberFunction("getValueType", this::getValueType),
-			new MemberFunction("copy", (context, function) -> this.newCopy()),
-			new MemberFunction("equals", "other", this::equals),
-			new MemberFunction("toString", (context, function) -> new StringValue(this.getStringValue(context)))
-		));
-		return memberFunctions;
+		return VALUE_FUNCTIONS;
+	}
+
+	/**
+	 * Creates a set of member functions that also contains the functions
+	 * every value has, this should only be called once per type of value
+	 */
+	protected static Set<MemberFunction> withValueFunctions(MemberFunction... functions) {
+		Set<MemberFunction> memberFunctions = new HashSet<>(VALUE_FUNCTIONS);
+		memberFunctions.addAll(Set.of(functions));
+		return Set.copyOf(memberFunctions);
 	}
 
-	private Value<?> instanceOf(Context context, MemberFunction function) throws CodeError {
+	private static Value<?> instanceOf(Context context, MemberFunction function) throws CodeError {
+		Value<?> thisValue = function.getThis(context, Value.class);
 		StringValue stringValue = function.getParameterValueOfType(context, StringValue.class, 0);
 		if (stringValue.value.isEmpty()) {
 			return BooleanValue.FALSE;
 		}
 
-		if (this instanceof ArucasClassValue classValue) {
+		if (thisValue instanceof ArucasClassValue classValue) {
 			return BooleanValue.of(classValue.getName().equals(stringValue.value));
 		}
 
-		Class<?> clazz = this.getClass();
+		Class<?> clazz = thisValue.getClass();
 		while (clazz != null && clazz != Object.class) {
 			if (clazz.getSimpleName().replaceFirst("Value$", "").equals(stringValue.value)) {
 				return BooleanValue.TRUE;
@@ -111,17 +134,19 @@ public abstract class Value<T> implements ValueOperations, MemberOperations {
 		return BooleanValue.FALSE;
 	}
 
-	private Value<?> getValueType(Context context, MemberFunction function) {
-		if (this instanceof ArucasClassValue classValue) {
+	private static Value<?> getValueType(Context context, MemberFunction function) throws CodeError {
+		Value<?> thisValue = function.getThis(context, Value.class);
+		if (thisValue instanceof ArucasClassValue classValue) {
 			return new StringValue(classValue.getName());
 		}
 
-		String valueType = this.getClass().getSimpleName().replaceFirst("Value$", "");
+		String valueType = thisValue.getClass().getSimpleName().replaceFirst("Value$", "");
 		return new StringValue(valueType);
 	}
 
-	private BooleanValue equals(Context context, MemberFunction function) {
+	private static BooleanValue equals(Context context, MemberFunction function) throws CodeError {
+		Value<?> thisValue = function.getThis(context, Value.class);
 		Value<?> otherValue = function.getParameterValue(context, 0);
-		return this.isEqual(otherValue);
+		return thisValue.isEqual(otherValue);
 	}
 }
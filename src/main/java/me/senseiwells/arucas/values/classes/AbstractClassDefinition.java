@@ -24,6 +24,15 @@ public abstract class AbstractClassDefinition implements MemberOperations {
 		this.staticMemberVariables = new HashMap<>();
 	}
 
+	/**
+	 * Creates a definition that shares the static methods of another but has its own static variables
+	 */
+	protected AbstractClassDefinition(AbstractClassDefinition definition) {
+		this.name = definition.name;
+		this.staticMethods = definition.staticMethods;
+		this.staticMemberVariables = new HashMap<>();
+	}
+
 	public final String getName() {
 		return this.name;
 	}
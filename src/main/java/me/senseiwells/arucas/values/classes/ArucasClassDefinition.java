@@ -1,6 +1,9 @@
 package me.senseiwells.arucas.values.classes;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.nodes.Node;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
@@ -9,9 +12,12 @@ import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.values.Value;
 import me.senseiwells.arucas.values.functions.ClassMemberFunction;
+import me.senseiwells.arucas.values.functions.FunctionValue;
+import me.senseiwells.arucas.values.functions.UserDefinedFunction;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +25,7 @@ public class ArucasClassDefinition extends AbstractClassDefinition {
 	private final List<ClassMemberFunction> methods;
 	private final List<ClassMemberFunction> constructors;
 	private final Map<String, Node> memberVariables;
+	private final Map<String, Integer> memberSlots;
 	private final Map<String, Node> staticMemberVariableNodes;
 	private final List<Node> staticInitialisers;
 	private final Map<Token.Type, ClassMemberFunction> operatorMethods;
@@ -27,11 +34,31 @@ public class ArucasClassDefinition extends AbstractClassDefinition {
 		super(name);
 		this.methods = new ArrayList<>();
 		this.constructors = new ArrayList<>();
-		this.memberVariables = new HashMap<>();
+		this.memberVariables = new LinkedHashMap<>();
+		this.memberSlots = new HashMap<>();
 		this.staticMemberVariableNodes = new HashMap<>();
 		this.staticInitialisers = new ArrayList<>();
 		this.operatorMethods = new HashMap<>();
 	}
+
+	private ArucasClassDefinition(ArucasClassDefinition definition) {
+		super(definition);
+		this.methods = definition.methods;
+		this.constructors = definition.constructors;
+		this.memberVariables = definition.memberVariables;
+		this.memberSlots = definition.memberSlots;
+		this.staticMemberVariableNodes = definition.staticMemberVariableNodes;
+		this.staticInitialisers = definition.staticInitialisers;
+		this.operatorMethods = definition.operatorMethods;
+	}
+
+	/**
+	 * The parsed definition is shared by every run of the program, each time
+	 * the class is declared it gets a copy so its statics are not shared
+	 */
+	public ArucasClassDefinition copy() {
+		return new ArucasClassDefinition(this);
+	}
 	
 	public void addMethod(ClassMemberFunction method) {
 		this.methods.add(method);
@@ -49,10 +76,122 @@ public class ArucasClassDefinition extends AbstractClassDefinition {
 		this.operatorMethods.put(tokenType, method);
 	}
 
+	/**
+	 * The methods are shared by every copy of this definition so
+	 * they can be used to tell if two instances have the same methods
+	 */
+	public List<ClassMemberFunction> getMethods() {
+		return this.methods;
+	}
+
+	public ClassMemberFunction getOperatorMethod(Token.Type tokenType) {
+		return this.operatorMethods.get(tokenType);
+	}
+
+	/**
+	 * Member variables are given slots in the order they are declared
+	 */
+	public int getMemberSlot(String name) {
+		Integer slot = this.memberSlots.get(name);
+		return slot == null ? -1 : slot;
+	}
+
+	public int getMemberCount() {
+		return this.memberSlots.size();
+	}
+
 	public List<ClassMemberFunction> getConstructors() {
 		return this.constructors;
 	}
 
+	public void optimise(Optimiser optimiser) {
+		for (ClassMemberFunction method : this.methods) {
+			method.optimise(optimiser);
+		}
+		for (ClassMemberFunction constructor : this.constructors) {
+			constructor.optimise(optimiser);
+		}
+		for (ClassMemberFunction operatorMethod : this.operatorMethods.values()) {
+			operatorMethod.optimise(optimiser);
+		}
+		for (FunctionValue staticMethod : this.getStaticMethods()) {
+			if (staticMethod instanceof UserDefinedFunction userFunction) {
+				userFunction.optimise(optimiser);
+			}
+		}
+		this.memberVariables.replaceAll((name, node) -> optimiser.optimise(node));
+		this.staticMemberVariableNodes.replaceAll((name, node) -> optimiser.optimise(node));
+		optimiser.optimiseAll(this.staticInitialisers);
+	}
+
+	/**
+	 * Member variables and statics are initialised in the scope
+	 * they are called from so they cannot be resolved to slots
+	 */
+	public void resolve(Resolver resolver) {
+		for (ClassMemberFunction method : this.methods) {
+			method.resolve(resolver);
+		}
+		for (ClassMemberFunction constructor : this.constructors) {
+			constructor.resolve(resolver);
+		}
+		for (ClassMemberFunction operatorMethod : this.operatorMethods.values()) {
+			operatorMethod.resolve(resolver);
+		}
+		for (FunctionValue staticMethod : this.getStaticMethods()) {
+			if (staticMethod instanceof UserDefinedFunction userFunction) {
+				userFunction.resolve(resolver);
+			}
+		}
+		
+		resolver.pushDynamicRegion();
+		for (Node node : this.memberVariables.values()) {
+			node.resolve(resolver);
+		}
+		for (Node node : this.staticMemberVariableNodes.values()) {
+			node.resolve(resolver);
+		}
+		for (Node node : this.staticInitialisers) {
+			node.resolve(resolver);
+		}
+		resolver.popRegion();
+	}
+
+	/**
+	 * Writes every part of this class, functions are written with their bodies
+	 */
+	public void write(ProgramWriter writer) {
+		writer.writeString(this.getName());
+		writer.writeInt(this.methods.size());
+		for (ClassMemberFunction method : this.methods) {
+			writer.writeFunction(method);
+		}
+		writer.writeInt(this.constructors.size());
+		for (ClassMemberFunction constructor : this.constructors) {
+			writer.writeFunction(constructor);
+		}
+		writer.writeInt(this.operatorMethods.size());
+		for (Map.Entry<Token.Type, ClassMemberFunction> entry : this.operatorMethods.entrySet()) {
+			writer.writeInt(entry.getKey().ordinal());
+			writer.writeFunction(entry.getValue());
+		}
+		writer.writeInt(this.getStaticMethods().size());
+		for (FunctionValue staticMethod : this.getStaticMethods()) {
+			writer.writeFunction((UserDefinedFunction) staticMethod);
+		}
+		writeNodes(writer, this.memberVariables);
+		writeNodes(writer, this.staticMemberVariableNodes);
+		writer.writeNodes(this.staticInitialisers);
+	}
+
+	private static void writeNodes(ProgramWriter writer, Map<String, Node> nodes) {
+		writer.writeInt(nodes.size());
+		for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+			writer.writeString(entry.getKey());
+			writer.writeNode(entry.getValue());
+		}
+	}
+
 	public void initialiseStatics(Context context) throws ThrowValue, CodeError {
 		for (Map.Entry<String, Node> entry : this.staticMemberVariableNodes.entrySet()) {
 			this.getStaticMemberVariables().put(entry.getKey(), entry.getValue().visit(context));
@@ -64,24 +203,19 @@ public class ArucasClassDefinition extends AbstractClassDefinition {
 
 	@SuppressWarnings("UnusedReturnValue")
 	public Node addMemberVariableNode(boolean isStatic, String name, Node value) {
-		return isStatic ? this.staticMemberVariableNodes.put(name, value) : this.memberVariables.put(name, value);
+		if (isStatic) {
+			return this.staticMemberVariableNodes.put(name, value);
+		}
+		this.memberSlots.putIfAbsent(name, this.memberSlots.size());
+		return this.memberVariables.put(name, value);
 	}
 	
 	public ArucasClassValue createNewDefinition(Context context, List<Value<?>> parameters, ISyntax syntaxPosition) throws CodeError, ThrowValue {
 		ArucasClassValue thisValue = new ArucasClassValue(this);
-		// Add methods
-		for (ClassMemberFunction function : this.methods) {
-			thisValue.addMethod(function.copy(thisValue));
-		}
-
-		// Add operator methods
-		for (Map.Entry<Token.Type, ClassMemberFunction> entry : this.operatorMethods.entrySet()) {
-			thisValue.addOperatorMethods(entry.getKey(), entry.getValue().copy(thisValue));
-		}
-
-		// Add member variables
-		for (Map.Entry<String, Node> entry : this.memberVariables.entrySet()) {
-			thisValue.addMemberVariable(entry.getKey(), entry.getValue().visit(context));
+		// Methods are shared by every instance, only the member variables are set
+		int slot = 0;
+		for (Node node : this.memberVariables.values()) {
+			thisValue.setField(slot++, node.visit(context));
 		}
 
 		int parameterCount = parameters.size() + 1;
@@ -95,7 +229,10 @@ public class ArucasClassDefinition extends AbstractClassDefinition {
 				continue;
 			}
 			matched = true;
-			constructor.copy(thisValue).call(context, parameters, false);
+			List<Value<?>> arguments = new ArrayList<>(parameterCount);
+			arguments.add(thisValue);
+			arguments.addAll(parameters);
+			constructor.call(context, arguments, false);
 			break;
 		}
 		if (!matched) {
@@ -3,68 +3,68 @@ package me.senseiwells.arucas.values.classes;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
-import me.senseiwells.arucas.utils.StackTable;
 import me.senseiwells.arucas.values.Value;
 import me.senseiwells.arucas.values.functions.ClassMemberFunction;
 import me.senseiwells.arucas.values.functions.FunctionValue;
 
 import java.util.*;
 
+/**
+ * Instances share the methods of their definition, the methods are not bound
+ * to an instance and take the instance as their first argument when they are called.
+ * Member variables are stored in slots, the slot of each member is set by the definition.
+ */
 public class ArucasClassValue extends Value<ArucasClassDefinition> {
-	private final List<ClassMemberFunction> methods;
-	private final Map<Token.Type, ClassMemberFunction> operatorMethods;
-	private final StackTable members;
+	private final Value<?>[] fields;
 	
 	public ArucasClassValue(ArucasClassDefinition arucasClass) {
 		super(arucasClass);
-		this.methods = new ArrayList<>();
-		this.operatorMethods = new HashMap<>();
-		this.members = new StackTable();
+		this.fields = new Value<?>[arucasClass.getMemberCount()];
 	}
 	
 	public String getName() {
 		return this.value.getName();
 	}
-	
-	protected void addMethod(ClassMemberFunction method) {
-		this.methods.add(method);
-	}
 
-	protected void addOperatorMethods(Token.Type type, ClassMemberFunction method) {
-		this.operatorMethods.put(type, method);
+	protected void setField(int slot, Value<?> value) {
+		this.fields[slot] = value;
 	}
-	
-	protected void addMemberVariable(String name, Value<?> value) {
-		this.members.setLocal(name, value);
+
+	public Value<?> getField(int slot) {
+		return this.fields[slot];
 	}
 
 	public boolean hasOperatorMethod(Token.Type type) {
-		return this.operatorMethods.containsKey(type);
+		return this.value.getOperatorMethod(type) != null;
 	}
 
+	/**
+	 * Returns the operator method, the instance must be passed as the first argument
+	 */
 	public ClassMemberFunction getOperatorMethod(Token.Type type) {
-		return this.operatorMethods.get(type);
+		return this.value.getOperatorMethod(type);
 	}
 
 	@Override
 	public boolean isAssignable(String name) {
 		// Only member variables are modifiable
-		return this.members.get(name) != null;
+		return this.value.getMemberSlot(name) != -1;
 	}
 
 	@Override
 	public boolean setMember(String name, Value<?> value) {
-		if (!this.isAssignable(name)) {
+		int slot = this.value.getMemberSlot(name);
+		if (slot == -1) {
 			return false;
 		}
 
-		this.members.set(name, value);
+		this.fields[slot] = value;
 		return true;
 	}
 	
 	@Override
 	public Value<?> getMember(String name) {
-		Value<?> member = this.members.get(name);
+		Value<?> member = this.getMemberVariable(name);
 		if (member != null) {
 			return member;
 		}
@@ -73,17 +73,65 @@ public class ArucasClassValue extends Value<ArucasClassDefinition> {
 		if (member != null) {
 			return member;
 		}
-		return this.getDelegate(name, this.methods);
+		int index = this.getDelegateIndex(name);
+		return index != -1 ? this.bindMethod(index) : null;
 	}
 	
 	@Override
 	public FunctionValue getMember(String name, int parameters) {
-		for (ClassMemberFunction method : this.methods) {
+		int index = this.getMethodIndex(name, parameters);
+		return index != -1 ? this.bindMethod(index) : super.getMember(name, parameters);
+	}
+
+	/**
+	 * Methods are stored in the order of the class definition so
+	 * the index of a method is the same for every instance of a class
+	 */
+	public int getMethodIndex(String name, int parameters) {
+		List<ClassMemberFunction> methods = this.value.getMethods();
+		for (int i = 0; i < methods.size(); i++) {
+			ClassMemberFunction method = methods.get(i);
 			if (method.getParameterCount() == parameters && method.getName().equals(name)) {
-				return method;
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the only method with the name, or -1 if there is not exactly one
+	 */
+	public int getDelegateIndex(String name) {
+		List<ClassMemberFunction> methods = this.value.getMethods();
+		int index = -1;
+		for (int i = 0; i < methods.size(); i++) {
+			if (methods.get(i).getName().equals(name)) {
+				if (index != -1) {
+					return -1;
+				}
+				index = i;
 			}
 		}
-		return super.getMember(name, parameters);
+		return index;
+	}
+
+	/**
+	 * Returns the shared method, the instance must be passed as the first argument
+	 */
+	public ClassMemberFunction getMethod(int index) {
+		return this.value.getMethods().get(index);
+	}
+
+	/**
+	 * Returns a copy of the method that is bound to this instance, used when a method is used as a value
+	 */
+	public ClassMemberFunction bindMethod(int index) {
+		return this.getMethod(index).copy(this);
+	}
+
+	public Value<?> getMemberVariable(String name) {
+		int slot = this.value.getMemberSlot(name);
+		return slot == -1 ? null : this.fields[slot];
 	}
 
 	@Override
@@ -100,7 +148,7 @@ public class ArucasClassValue extends Value<ArucasClassDefinition> {
 	@Override
 	public boolean equals(Object other) {
 		if (other instanceof ArucasClassValue otherClass && this.getName().equals(otherClass.getName())) {
-			return this.members.equals(otherClass.members);
+			return Arrays.equals(this.fields, otherClass.fields);
 		}
 		return false;
 	}
@@ -108,9 +156,11 @@ public class ArucasClassValue extends Value<ArucasClassDefinition> {
 	@Override
 	public String getStringValue(Context context) throws CodeError {
 		// If 'toString' is overwritten we should return that value here
-		FunctionValue memberFunction = this.getMember("toString", 1);
-		if (memberFunction != null) {
-			return memberFunction.call(context, new ArrayList<>()).getStringValue(context);
+		int index = this.getMethodIndex("toString", 1);
+		if (index != -1) {
+			List<Value<?>> arguments = new ArrayList<>(1);
+			arguments.add(this);
+			return this.getMethod(index).call(context, arguments).getStringValue(context);
 		}
 		return "<class %s@%x>".formatted(this.getName(), this.hashCode());
 	}
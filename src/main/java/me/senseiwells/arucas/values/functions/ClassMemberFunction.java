@@ -4,6 +4,7 @@ import me.senseiwells.arucas.api.ISyntax;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.values.NullValue;
 import me.senseiwells.arucas.values.Value;
 import me.senseiwells.arucas.values.classes.ArucasClassValue;
 
@@ -24,18 +25,39 @@ public class ClassMemberFunction extends UserDefinedFunction {
 	public ClassMemberFunction copy(ArucasClassValue value) {
 		ClassMemberFunction copy = new ClassMemberFunction(value, this.getName(), this.argumentNames, this.syntaxPosition);
 		copy.bodyNode = this.bodyNode;
+		copy.localNames = this.localNames;
 		return copy;
 	}
 	
+	/**
+	 * Methods shared by instances are passed the instance as the first argument by
+	 * the caller, a bound method puts its instance in the first slot of the frame
+	 */
+	@Override
+	protected Value<?>[] createFrame(List<Value<?>> arguments) {
+		if (this.thisValue == null) {
+			return super.createFrame(arguments);
+		}
+		Value<?>[] frame = this.createFrame(arguments, 1);
+		frame[0] = this.thisValue;
+		return frame;
+	}
+	
 	@Override
 	public Value<?> execute(Context context, List<Value<?>> arguments) throws CodeError, ThrowValue {
-		// This value is always added as the first parameter.
-		arguments.add(0, this.thisValue);
-		return super.execute(context, arguments);
+		if (this.thisValue == null) {
+			return super.execute(context, arguments);
+		}
+		this.checkArguments(context, arguments.size() + 1, this.argumentNames);
+		this.bodyNode.visit(context);
+		return NullValue.NULL;
 	}
 	
 	@Override
 	public String getStringValue(Context context) throws CodeError {
+		if (this.thisValue == null) {
+			return super.getStringValue(context);
+		}
 		return "<class %s::%s@%x>".formatted(this.thisValue.getName(), this.getName(), this.hashCode());
 	}
 }
@@ -3,28 +3,28 @@ package me.senseiwells.arucas.values.functions;
 import java.util.List;
 
 @SuppressWarnings("unused")
-public class ConstructorFunction extends MemberFunction {
-	public ConstructorFunction(List<String> argumentNames, FunctionDefinition<MemberFunction> function, String deprecatedMessage) {
+public class ConstructorFunction extends BuiltInFunction {
+	public ConstructorFunction(List<String> argumentNames, FunctionDefinition<BuiltInFunction> function, String deprecatedMessage) {
 		super("", argumentNames, function, deprecatedMessage);
 	}
 
-	public ConstructorFunction(List<String> argumentNames, FunctionDefinition<MemberFunction> function) {
+	public ConstructorFunction(List<String> argumentNames, FunctionDefinition<BuiltInFunction> function) {
 		super("", argumentNames, function);
 	}
 
-	public ConstructorFunction(String argument, FunctionDefinition<MemberFunction> function) {
+	public ConstructorFunction(String argument, FunctionDefinition<BuiltInFunction> function) {
 		super("", argument, function);
 	}
 
-	public ConstructorFunction(FunctionDefinition<MemberFunction> function) {
+	public ConstructorFunction(FunctionDefinition<BuiltInFunction> function) {
 		super("", function);
 	}
 
-	public ConstructorFunction(String argument, FunctionDefinition<MemberFunction> function, String deprecatedMessage) {
+	public ConstructorFunction(String argument, FunctionDefinition<BuiltInFunction> function, String deprecatedMessage) {
 		super("", argument, function, deprecatedMessage);
 	}
 
-	public ConstructorFunction(FunctionDefinition<MemberFunction> function, String deprecatedMessage) {
-		super("", function, deprecatedMessage);
+	public ConstructorFunction(FunctionDefinition<BuiltInFunction> function, String deprecatedMessage) {
+		super("", List.of(), function, deprecatedMessage);
 	}
 }
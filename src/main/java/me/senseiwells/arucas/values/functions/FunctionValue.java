@@ -2,6 +2,9 @@ package me.senseiwells.arucas.values.functions;
 
 import me.senseiwells.arucas.api.ISyntax;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.Metrics;
+import me.senseiwells.arucas.utils.Profiler;
+import me.senseiwells.arucas.utils.StackTable;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
@@ -30,11 +33,25 @@ public abstract class FunctionValue extends Value<String> {
 		return this.argumentNames.size();
 	}
 	
-	private void checkArguments(Context context, List<Value<?>> arguments, List<String> argumentNames) throws CodeError {
-		int argumentSize = arguments == null ? 0 : arguments.size();
+	/**
+	 * Returns the names of the locals that have slots in the function scope
+	 */
+	protected String[] getLocalNames() {
+		return null;
+	}
+	
+	/**
+	 * Returns the values of the locals of the function scope with the arguments
+	 * already in their slots, or null if the arguments are set by name
+	 */
+	protected Value<?>[] createFrame(List<Value<?>> arguments) {
+		return null;
+	}
+	
+	protected void checkArguments(Context context, int argumentSize, List<String> argumentNames) throws CodeError {
 		if (argumentSize > argumentNames.size()) {
 			throw new RuntimeError(
-				"%s too many arguments passed into %s".formatted(arguments.size() - argumentNames.size(), this.value),
+				"%s too many arguments passed into %s".formatted(argumentSize - argumentNames.size(), this.value),
 				this.syntaxPosition,
 				context
 			);
@@ -57,7 +74,7 @@ public abstract class FunctionValue extends Value<String> {
 	}
 
 	public void checkAndPopulateArguments(Context context, List<Value<?>> arguments, List<String> argumentNames) throws CodeError {
-		this.checkArguments(context, arguments, argumentNames);
+		this.checkArguments(context, arguments == null ? 0 : arguments.size(), argumentNames);
 		this.populateArguments(context, arguments, argumentNames);
 	}
 
@@ -72,7 +89,27 @@ public abstract class FunctionValue extends Value<String> {
 	}
 
 	public final Value<?> call(Context context, List<Value<?>> arguments, boolean returnable) throws CodeError {
-		context.pushFunctionScope(this.syntaxPosition);
+		Metrics metrics = context.getMetrics();
+		if (metrics != null) {
+			metrics.countFunctionCall();
+		}
+		Profiler profiler = context.getProfiler();
+		if (profiler == null) {
+			return this.invoke(context, arguments, returnable);
+		}
+		long outerChildNanos = profiler.startCall(context);
+		long start = System.nanoTime();
+		try {
+			return this.invoke(context, arguments, returnable);
+		}
+		finally {
+			profiler.endCall(context, this, start, outerChildNanos);
+		}
+	}
+
+	private Value<?> invoke(Context context, List<Value<?>> arguments, boolean returnable) throws CodeError {
+		context.pushFunctionScope(this.syntaxPosition, this.getLocalNames(), this.createFrame(arguments));
+		StackTable functionScope = context.getStackTable();
 		try {
 			Value<?> value = this.execute(context, arguments);
 			context.popScope();
@@ -86,7 +123,7 @@ public abstract class FunctionValue extends Value<String> {
 					this.syntaxPosition
 				);
 			}
-			context.moveScope(context.getReturnScope());
+			context.moveScope(functionScope);
 			context.popScope();
 			return tv.returnValue;
 		}
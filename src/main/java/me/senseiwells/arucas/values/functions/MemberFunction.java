@@ -2,17 +2,31 @@ package me.senseiwells.arucas.values.functions;
 
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.values.NullValue;
 import me.senseiwells.arucas.values.Value;
 
 import java.util.List;
 
+/**
+ * A member function is shared between all values of the same type,
+ * the value it is called on is always passed in as the first argument.
+ * The value and the arguments are put straight into the slots of the
+ * function scope so calling a member function does not create a symbol map.
+ */
 public class MemberFunction extends AbstractBuiltInFunction<MemberFunction> {
+	private final String[] localNames;
+
 	public MemberFunction(String name, List<String> argumentNames, FunctionDefinition<MemberFunction> function, String isDeprecated) {
 		super(name, argumentNames, function, isDeprecated);
+		this.localNames = new String[argumentNames.size() + 1];
+		this.localNames[0] = "this";
+		for (int i = 0; i < argumentNames.size(); i++) {
+			this.localNames[i + 1] = argumentNames.get(i);
+		}
 	}
 
 	public MemberFunction(String name, List<String> argumentNames, FunctionDefinition<MemberFunction> function) {
-		super(name, argumentNames, function, null);
+		this(name, argumentNames, function, null);
 	}
 
 	public MemberFunction(String name, String argument, FunctionDefinition<MemberFunction> function) {
@@ -31,10 +45,47 @@ public class MemberFunction extends AbstractBuiltInFunction<MemberFunction> {
 		this(name, List.of(), function, isDeprecated);
 	}
 
+	/**
+	 * The value this function is being called on counts as a parameter
+	 */
+	@Override
+	public int getParameterCount() {
+		return this.argumentNames.size() + 1;
+	}
+
+	public <T extends Value<?>> T getThis(Context context, Class<T> clazz) throws CodeError {
+		Value<?> thisValue = context.getVariable("this");
+		if (!clazz.isInstance(thisValue)) {
+			throw this.throwInvalidParameterError("%s() cannot be called on %s".formatted(this.value, thisValue), context);
+		}
+		return clazz.cast(thisValue);
+	}
+
+	/**
+	 * The value this function is called on is in the first slot, the arguments are in the slots after it
+	 */
+	@Override
+	protected String[] getLocalNames() {
+		return this.localNames;
+	}
+
+	@Override
+	protected Value<?>[] createFrame(List<Value<?>> arguments) {
+		Value<?>[] frame = new Value<?>[this.localNames.length];
+		int count = Math.min(arguments.size(), frame.length);
+		for (int i = 0; i < count; i++) {
+			frame[i] = arguments.get(i);
+		}
+		if (count == 0) {
+			frame[0] = NullValue.NULL;
+		}
+		return frame;
+	}
+
 	@Override
 	protected Value<?> execute(Context context, List<Value<?>> arguments) throws CodeError {
 		this.checkDeprecated(context);
-		this.checkAndPopulateArguments(context, arguments, this.argumentNames);
+		this.checkArguments(context, Math.max(arguments.size() - 1, 0), this.argumentNames);
 		return this.function.execute(context, this);
 	}
 }
@@ -1,6 +1,9 @@
 package me.senseiwells.arucas.values.functions;
 
 import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.core.ProgramWriter;
+import me.senseiwells.arucas.core.Resolver;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
 import me.senseiwells.arucas.nodes.Node;
@@ -11,18 +14,62 @@ import me.senseiwells.arucas.values.Value;
 import java.util.List;
 
 public class UserDefinedFunction extends FunctionValue {
+	protected String[] localNames;
 	protected Node bodyNode;
 
 	public UserDefinedFunction(String name, List<String> argumentNames, ISyntax syntaxPosition) {
 		super(name, syntaxPosition, argumentNames, null);
+		this.localNames = argumentNames.toArray(String[]::new);
 	}
 	
 	public void complete(Node bodyNode) {
 		this.bodyNode = bodyNode;
 	}
+	
+	public void optimise(Optimiser optimiser) {
+		this.bodyNode = optimiser.optimise(this.bodyNode);
+	}
+	
+	public void resolve(Resolver resolver) {
+		resolver.pushFunctionRegion(this.argumentNames);
+		this.bodyNode.resolve(resolver);
+		this.localNames = resolver.popFunctionRegion();
+	}
+	
+	/**
+	 * Writes the parts of this function its constructor needs and then its body
+	 */
+	public void write(ProgramWriter writer) {
+		writer.writeString(this.getName());
+		writer.writeStrings(this.argumentNames);
+		writer.writeSyntax(this.syntaxPosition);
+		writer.writeNode(this.bodyNode);
+	}
+	
+	@Override
+	protected String[] getLocalNames() {
+		return this.localNames;
+	}
 
+	/**
+	 * The arguments are the first locals of the function so they are copied straight into their slots
+	 */
+	@Override
+	protected Value<?>[] createFrame(List<Value<?>> arguments) {
+		return this.createFrame(arguments, 0);
+	}
+	
+	protected final Value<?>[] createFrame(List<Value<?>> arguments, int offset) {
+		Value<?>[] frame = new Value<?>[this.localNames.length];
+		int count = Math.min(arguments.size(), frame.length - offset);
+		for (int i = 0; i < count; i++) {
+			frame[offset + i] = arguments.get(i);
+		}
+		return frame;
+	}
+	
 	protected Value<?> execute(Context context, List<Value<?>> arguments) throws CodeError, ThrowValue {
-		this.checkAndPopulateArguments(context, arguments, this.argumentNames);
+		this.checkArguments(context, arguments.size(), this.argumentNames);
 		this.bodyNode.visit(context);
 		return NullValue.NULL;
 	}
@@ -1,9 +1,23 @@
 package me.senseiwells.test;
 
+import me.senseiwells.arucas.api.ContextBuilder;
+import me.senseiwells.arucas.api.IArucasExtension;
+import me.senseiwells.arucas.core.Run;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
+import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.Metrics;
+import me.senseiwells.arucas.values.StringValue;
+import me.senseiwells.arucas.values.Value;
+import me.senseiwells.arucas.values.functions.BuiltInFunction;
+import me.senseiwells.arucas.values.functions.MemberFunction;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
 import static org.junit.Assert.*;
 
 public class ArucasClassTest {
@@ -225,4 +239,166 @@ public class ArucasClassTest {
 			"""
 		));
 	}
+
+	@Test(timeout = 1000)
+	public void testClassDeclaredByRunningTwice() throws IOException {
+		assertEquals("2", ArucasHelper.runSafeFull(
+			"""
+			runFromString('class Q { static var n = 1; }');
+			X = runFromString('class Q { static var n = 2; } return Q.n;');
+			""", "X"
+		));
+		Path library = Files.createTempFile("library", ".arucas");
+		try {
+			Files.writeString(library, "class Q { var n = 1; } return new Q().n;");
+			String path = library.toAbsolutePath().toString().replace('\\', '/');
+			assertEquals("2", ArucasHelper.runSafeFull("X = run('%s') + run('%s');".formatted(path, path), "X"));
+		}
+		finally {
+			Files.delete(library);
+		}
+		assertThrows(CodeError.class, () -> ArucasHelper.compile("class String { }"));
+	}
+
+	@Test(timeout = 1000)
+	public void testClassDeclaredTwiceInOneScript() {
+		assertThrows(CodeError.class, () -> ArucasHelper.compile("class A { static var n = 1; } class A { static var n = 2; } return A.n;"));
+		assertThrows(CodeError.class, () -> ArucasHelper.compile("class A { } if (true) { class A { } }"));
+		assertEquals("1", ArucasHelper.runSafeFull(
+			"""
+			fun make() {
+				class Made { static var n = '1'; }
+			}
+			make();
+			make();
+			X = Made.n;
+			""", "X"
+		));
+	}
+
+	@Test(timeout = 1000)
+	public void testPolymorphicMemberCalls() throws CodeError {
+		Metrics metrics = new Metrics();
+		Context context = new ContextBuilder().addDefault().setMetrics(metrics).build();
+		Run.run(context, "",
+			"""
+			class A {
+				var n = 1;
+				fun get() { return this.n; }
+			}
+			class B {
+				var n = 2;
+				fun get() { return this.n * 2; }
+			}
+			X = 0;
+			foreach (value : [new A(), new B(), new A(), new B()]) {
+				X = X + value.get();
+				X = X + value.n - value.n;
+			}
+			if ([].isEmpty() && 'a'.uppercase() == 'A') X = X + 0;
+			"""
+		);
+		assertEquals("10", context.getStackTable().get("X").getStringValue(context));
+		assertTrue(metrics.getCacheHits() > 0);
+		assertTrue(metrics.getCacheMisses() > 0);
+		assertThrows(RuntimeError.class, () -> ArucasHelper.runUnsafe(
+			"""
+			class A {
+				fun get() { return 1; }
+			}
+			foreach (value : [new A(), 1]) {
+				value.get();
+			}
+			"""
+		));
+	}
+
+	@Test(timeout = 1000)
+	public void testMemberFunctionsMadeForEachValue() throws CodeError {
+		IArucasExtension extension = new IArucasExtension() {
+			@Override
+			public Set<? extends BuiltInFunction> getDefinedFunctions() {
+				return Set.of(new BuiltInFunction("tag", "name", (context, function) ->
+					new TagValue(function.getParameterValueOfType(context, StringValue.class, 0).value)
+				));
+			}
+
+			@Override
+			public String getName() {
+				return "TagExtension";
+			}
+		};
+		Context context = new ContextBuilder().addDefault().addExtensions(() -> extension).build();
+		Run.run(context, "",
+			"""
+			X = '';
+			foreach (name : ['a', 'b', 'c', 'd', 'e', 'f']) {
+				X = X + tag(name).getTag();
+			}
+			"""
+		);
+		assertEquals("abcdef", context.getStackTable().get("X").getStringValue(context));
+	}
+
+	/**
+	 * Gives each value its own member functions that use the value they were made for
+	 */
+	private static class TagValue extends Value<String> {
+		private TagValue(String value) {
+			super(value);
+		}
+
+		@Override
+		public TagValue copy() {
+			return this;
+		}
+
+		@Override
+		protected Set<MemberFunction> getDefinedFunctions() {
+			return Set.of(new MemberFunction("getTag", (context, function) -> new StringValue(this.value)));
+		}
+	}
+
+	@Test(timeout = 1000)
+	public void testSharedMethods() {
+		assertEquals("V(40, 60)", ArucasHelper.runSafeFull(
+			"""
+			class V {
+				var x = 0;
+				var y = 0;
+				V(x, y) { this.x = x; this.y = y; }
+				operator + (other) { return new V(this.x + other.x, this.y + other.y); }
+				fun scale(k) { return new V(this.x * k, this.y * k); }
+				fun toString() { return 'V(' + this.x.toString() + ', ' + this.y.toString() + ')'; }
+			}
+			scale = (new V(1, 2) + new V(3, 4)).scale;
+			X = scale(10);
+			""", "X"
+		));
+	}
+
+	@Test(timeout = 1000)
+	public void testNestedClassDeclaration() {
+		assertEquals("2", ArucasHelper.runSafeFull(
+			"""
+			if (true) {
+				class Inner {
+					static fun get() { return '2'; }
+				}
+			}
+			X = Inner.get();
+			""", "X"
+		));
+		assertEquals("3", ArucasHelper.runSafeFull(
+			"""
+			fun make() {
+				class Made {
+					var x = '3';
+				}
+				return new Made();
+			}
+			X = make().x;
+			""", "X"
+		));
+	}
 }
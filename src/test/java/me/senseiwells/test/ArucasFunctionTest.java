@@ -1,13 +1,305 @@
 package me.senseiwells.test;
 
+import me.senseiwells.arucas.api.ArucasThreadHandler;
+import me.senseiwells.arucas.api.ContextBuilder;
+import me.senseiwells.arucas.api.impl.ArucasExecutor;
+import me.senseiwells.arucas.core.Lexer;
+import me.senseiwells.arucas.core.ParseCache;
+import me.senseiwells.arucas.core.Parser;
+import me.senseiwells.arucas.core.Program;
+import me.senseiwells.arucas.core.ProgramReader;
+import me.senseiwells.arucas.core.Run;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
+import me.senseiwells.arucas.throwables.ThrowValue;
+import me.senseiwells.arucas.utils.ArucasTask;
+import me.senseiwells.arucas.utils.Context;
+import me.senseiwells.arucas.utils.Metrics;
+import me.senseiwells.arucas.utils.Profiler;
+import me.senseiwells.arucas.values.NumberValue;
+import me.senseiwells.arucas.values.Value;
+import me.senseiwells.arucas.values.functions.FunctionValue;
 import org.junit.Test;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class ArucasFunctionTest {
+	@Test
+	public void testParseCache() throws CodeError {
+		ParseCache cache = new ParseCache(1);
+		Program first = cache.parse("a", "X = 1;");
+		assertSame(first, cache.parse("a", "X = 1;"));
+		assertNotSame(first, cache.parse("a", "X = 2;"));
+		assertNotSame(first, cache.parse("a", "X = 1;"));
+		assertEquals(1L, cache.getHits());
+		assertEquals(3L, cache.getMisses());
+		assertEquals(1, cache.size());
+		assertEquals("2", ArucasHelper.runSafeFull("X = runFromString('return 1;') + runFromString('return 1;');", "X"));
+	}
+
+	@Test
+	public void testProgramLinking() throws CodeError, ThrowValue {
+		Program program = new Parser(new Lexer("class A { static var n = 0; } A.n = A.n + 1; X = A.n;", "").createTokens()).parse();
+		for (int i = 0; i < 2; i++) {
+			Context context = new ContextBuilder().addDefault().build();
+			program.link(context).visit(context);
+			assertEquals("1", context.getStackTable().get("X").getStringValue(context));
+		}
+		Program unknown = new Parser(new Lexer("print(1);", "").createTokens()).parse();
+		assertThrows(CodeError.class, () -> unknown.link(new ContextBuilder().build()));
+	}
+
+	@Test
+	public void testBoundMethodCall() throws CodeError, ThrowValue {
+		Program program = new Parser(new Lexer("class A { var n = 1; fun add(x) { return this.n + x; } } X = new A();", "").createTokens()).parse();
+		Context context = new ContextBuilder().addDefault().build();
+		program.link(context).visit(context);
+		FunctionValue method = context.getStackTable().get("X").getMember("add", 2);
+		// The arguments are copied into the frame so an immutable list can be passed
+		List<Value<?>> arguments = List.of(NumberValue.of(2));
+		assertEquals("3", method.call(context, arguments).getStringValue(context));
+		assertEquals(1, arguments.size());
+	}
+
+	@Test
+	public void testCompiledProgram() throws CodeError, ThrowValue, IOException {
+		Program program = new Parser(new Lexer(
+			"""
+			class A {
+				var n = 1;
+				static var m = 'm';
+				A(n) { this.n = n; }
+				fun add(x) { return this.n + x; }
+				operator + (other) { return this.n + other.n; }
+			}
+			fun fib(n) {
+				if (n < 2) {
+					return n;
+				}
+				return fib(n - 1) + fib(n - 2);
+			}
+			X = null;
+			switch (fib(5)) {
+				case 5 -> X = A.m + (new A(2) + new A(3)) + [1, 2].get(0) + { 'k' : new A(4).add(1) }.get('k');
+				default -> X = 'none';
+			}
+			""", "compiled"
+		).createTokens()).parse();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		program.write(out);
+
+		Program loaded = new ProgramReader(ByteBuffer.wrap(out.toByteArray())).read();
+		Context context = new ContextBuilder().addDefault().build();
+		loaded.link(context).visit(context);
+		assertEquals("m515", context.getStackTable().get("X").getStringValue(context));
+
+		Path file = Files.createTempFile("arucas", ".bin");
+		try {
+			Files.write(file, out.toByteArray());
+			context = new ContextBuilder().addDefault().build();
+			Run.runFile(context, file);
+			assertEquals("m515", context.getStackTable().get("X").getStringValue(context));
+
+			Files.writeString(file, "X = 'source';");
+			context = new ContextBuilder().addDefault().build();
+			Run.runFile(context, file);
+			assertEquals("source", context.getStackTable().get("X").getStringValue(context));
+		}
+		finally {
+			Files.delete(file);
+		}
+
+		byte[] otherVersion = out.toByteArray();
+		otherVersion[7]++;
+		assertThrows(IOException.class, () -> new ProgramReader(ByteBuffer.wrap(otherVersion)).read());
+	}
+
+	@Test(timeout = 5000)
+	public void testStepBudget() throws CodeError {
+		Context limited = new ContextBuilder().addDefault().setStepBudget(1000).build();
+		CodeError error = assertThrows(CodeError.class, () -> Run.run(limited, "", "while (true) { }"));
+		assertEquals(CodeError.ErrorType.STEP_LIMIT_ERROR, error.errorType);
+		assertEquals(0L, limited.getRemainingSteps());
+
+		// The handler gives the script more steps three times and then stops it
+		int[] slices = new int[1];
+		Context sliced = new ContextBuilder().addDefault().setStepBudget(100, context -> ++slices[0] <= 3 ? 100 : 0).build();
+		assertThrows(CodeError.class, () -> Run.run(sliced, "", "X = 0; while (true) { X = X + 1; }"));
+		assertEquals(4, slices[0]);
+		assertEquals("400", sliced.getStackTable().get("X").getStringValue(sliced));
+
+		Context unlimited = new ContextBuilder().addDefault().build();
+		Run.run(unlimited, "", "X = 0; while (X < 5000) { X = X + 1; }");
+		assertEquals(-1L, unlimited.getRemainingSteps());
+	}
+
+	@Test(timeout = 5000)
+	public void testStepBudgetIsShared() throws CodeError, InterruptedException {
+		Context context = new ContextBuilder().addDefault().setStepBudget(1000).build();
+		Run.run(context, "", "runFromString('X = 0; while (X < 600) { X = X + 1; }');");
+		assertTrue(context.getRemainingSteps() < 400);
+		assertEquals(context.getRemainingSteps(), context.createBranch().getRemainingSteps());
+		CodeError error = assertThrows(CodeError.class, () -> Run.run(context, "", "runFromString('X = 0; while (X < 600) { X = X + 1; }');"));
+		assertEquals(CodeError.ErrorType.STEP_LIMIT_ERROR, error.errorType);
+
+		Context threaded = new ContextBuilder().addDefault().setStepBudget(1000).build();
+		new ArucasThreadHandler().runOnThread(threaded, "", """
+			done = false;
+			runThreaded(fun() {
+				X = 0;
+				while (X < 600) { X = X + 1; }
+				done = true;
+			}, []);
+			while (!done) { sleep(1); }
+			""").join();
+		assertTrue(threaded.getRemainingSteps() < 400);
+	}
+
+	@Test(timeout = 5000)
+	public void testProfiler() throws CodeError {
+		Profiler profiler = new Profiler(0, TimeUnit.NANOSECONDS);
+		Context context = new ContextBuilder().setDisplayName("test").addDefault().setProfiler(profiler).build();
+		Run.run(context, "profiled", """
+			fun fib(n) {
+				if (n < 2) {
+					return n;
+				}
+				return fib(n - 1) + fib(n - 2);
+			}
+			X = fib(10);
+			""");
+		String report = profiler.getReport();
+		assertTrue(report.matches("(?s).*fib \\(profiled:1\\) +177 .*"));
+		assertTrue(report.contains("profiled:5"));
+		assertTrue(profiler.getCollapsedStacks().isEmpty() || profiler.getCollapsedStacks().startsWith("test;fib (profiled:1)"));
+
+		profiler.reset();
+		assertEquals("", profiler.getCollapsedStacks());
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+		Metrics metrics = new Metrics();
+		Context context = new ContextBuilder().addDefault().setMetrics(metrics).build();
+		Metrics.resetValuesAllocated();
+		Run.run(context, "", """
+			fun add(a, b) {
+				return a + b;
+			}
+			X = add(1, 2) + add(3, 4);
+			try {
+				throwRuntimeError('error');
+			}
+			catch (e) { }
+			""");
+		Map<String, Long> snapshot = metrics.getSnapshot();
+		assertEquals(3L, (long) snapshot.get("functionCalls"));
+		assertEquals(1L, (long) snapshot.get("runtimeErrors"));
+		assertEquals(1L, (long) snapshot.get("runs"));
+		assertTrue(snapshot.get("scopePushes") >= 3);
+		assertTrue(snapshot.get("parseNanos") > 0);
+		// The build turns value counting on for tests
+		if (Metrics.COUNTING_VALUES) {
+			assertTrue(snapshot.get("values.StringValue") > 0);
+		}
+		else {
+			assertTrue(metrics.getValuesAllocated().isEmpty());
+		}
+
+		ObjectName name = metrics.register("test");
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(3L, server.getAttribute(name, "FunctionCalls"));
+		}
+		finally {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		}
+		metrics.reset();
+		assertEquals(0L, metrics.getFunctionCalls());
+		Metrics.resetValuesAllocated();
+		assertTrue(metrics.getValuesAllocated().isEmpty());
+	}
+
+	@Test(timeout = 5000)
+	public void testPlatformExecutorIsBounded() throws InterruptedException {
+		// Tasks are not queued, so a full executor rejects a task instead of making it wait
+		ArucasExecutor executor = ArucasExecutor.createPlatform(4);
+		CountDownLatch started = new CountDownLatch(4);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(4);
+		for (int i = 0; i < 4; i++) {
+			executor.execute(() -> {
+				started.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException ignored) { }
+				finished.countDown();
+			});
+		}
+		started.await();
+		assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+		release.countDown();
+		finished.await();
+		executor.shutdown();
+
+		// A script that starts more threads than the executor has gets an error
+		List<String> errors = new ArrayList<>();
+		ArucasExecutor small = ArucasExecutor.createPlatform(2);
+		ArucasThreadHandler handler = new ArucasThreadHandler().setExecutor(small).setErrorHandler(errors::add);
+		Context context = new ContextBuilder().addDefault().build();
+		handler.runOnThread(context, "", "runThreaded(fun() { sleep(2000); }, []); runThreaded(fun() { }, []);").join();
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0).contains("Cannot start another thread"));
+		small.shutdown();
+	}
+
+	@Test(timeout = 5000)
+	public void testNewThreadHandlerReportsStop() throws InterruptedException {
+		List<String> errors = new ArrayList<>();
+		ArucasThreadHandler handler = new ArucasThreadHandler().setErrorHandler(errors::add);
+		Context context = new ContextBuilder().addDefault().build();
+		handler.runOnThread(context, "", "stop();").join();
+		assertEquals(1, errors.size());
+	}
+
+	@Test(timeout = 5000)
+	public void testParallelThreadHandlers() throws CodeError, InterruptedException {
+		List<Context> contexts = new ArrayList<>();
+		List<ArucasTask> tasks = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			Context context = new ContextBuilder().addDefault().build();
+			contexts.add(context);
+			tasks.add(new ArucasThreadHandler().runOnThread(context, "", "runThreaded(fun() { }, []); X = 0; while (X < 1000) X = X + 1;"));
+		}
+		for (ArucasTask task : tasks) {
+			task.join();
+		}
+		for (Context context : contexts) {
+			assertEquals("1000", context.getStackTable().get("X").getStringValue(context));
+		}
+	}
+
 	@Test
 	public void testFunctionStatement() {
 		assertEquals("0", ArucasHelper.runSafeFull("fun test(A, B, C) {} Q = '0';", "Q"));
@@ -74,4 +366,40 @@ public class ArucasFunctionTest {
 			""", "Q"
 		));
 	}
+
+	@Test
+	public void testCallStackTraceback() {
+		RuntimeError error = assertThrows(RuntimeError.class, () -> ArucasHelper.runUnsafeFull(
+			"""
+			fun a() {
+				return null.foo();
+			}
+			fun b() {
+				return a();
+			}
+			b();
+			""", "X"
+		));
+		String traceback = error.toString(null);
+		assertTrue(traceback.contains("Line: 5, Column: 9"));
+		assertTrue(traceback.contains("Line: 7, Column: 1"));
+		assertTrue(traceback.indexOf("Line: 5,") < traceback.indexOf("Line: 7,"));
+
+		// Calls that threw are popped so later calls still work
+		assertEquals("2", ArucasHelper.runSafeFull(
+			"""
+			fun f(x) {
+				if (x == 0) {
+					throwRuntimeError('zero');
+				}
+				return x;
+			}
+			try {
+				f(0);
+			}
+			catch (e) { }
+			X = f(2);
+			""", "X"
+		));
+	}
 }
@@ -6,12 +6,9 @@ import me.senseiwells.arucas.core.Parser;
 import me.senseiwells.arucas.nodes.Node;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.ThrowValue;
-import me.senseiwells.arucas.tokens.Token;
 import me.senseiwells.arucas.utils.Context;
 import me.senseiwells.arucas.values.Value;
 
-import java.util.List;
-
 public class ArucasHelper {
 	private static class NodeContext {
 		private final Node node;
@@ -30,8 +27,7 @@ public class ArucasHelper {
 			.addDefault()
 			.build();
 		
-		List<Token> tokens = new Lexer(syntax, "").createTokens();
-		return new NodeContext(new Parser(tokens, context).parse(), context);
+		return new NodeContext(new Parser(new Lexer(syntax, "")).parse().link(context), context);
 	}
 	
 	public static String runUnsafe(String syntax) throws CodeError, ThrowValue {
@@ -0,0 +1,87 @@
+package me.senseiwells.test;
+
+import me.senseiwells.arucas.core.Lexer;
+import me.senseiwells.arucas.core.Parser;
+import me.senseiwells.arucas.throwables.CodeError;
+import me.senseiwells.arucas.tokens.Token;
+import me.senseiwells.arucas.utils.Position;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ArucasLexerTest {
+	@Test
+	public void testLexerMatchesRegexLexer() throws CodeError {
+		assertSameTokens("X = 10; Y = 2.5 * X ^ 2 - 1.; iffy = if_ != null and not false || true && this;");
+		assertSameTokens("a++; b--; c -> d; e <= f >= g == h != i < j > k; l.m(n, [o], {p: q});");
+		assertSameTokens("'single \\' quote' \"double \\\" quote\" \"multi\nline\" 'back\\\\slash'");
+		assertSameTokens("// comment\n/* multi\nline */ x /**/ y /*/ z */ w\r\n\t1/2 /");
+		assertSameTokens("foreach for fun funny class classy static operator switch case default try catch var new");
+		assertSameTokens("12abc 1.2.3 .5 __init__ _1");
+		assertSameTokens("x = 1 /* not closed");
+	}
+
+	@Test
+	public void testLexerMatchesRegexLexerOnFiles() throws CodeError, IOException {
+		for (String file : List.of("test.arucas", "test2.arucas", "ListUtils.arucas")) {
+			assertSameTokens(readResource(file));
+		}
+	}
+
+	@Test
+	public void testLexerInvalidCharacter() {
+		assertThrows(CodeError.class, () -> new Lexer("x = 1 & 2;", "").createTokens());
+		assertThrows(CodeError.class, () -> new Lexer("x = 'not closed;", "").createTokens());
+		assertThrows(CodeError.class, () -> new Lexer("x = #;", "").createTokens());
+	}
+
+	@Test
+	public void testLexerNextToken() throws CodeError, IOException {
+		String syntax = readResource("test.arucas");
+		List<Token> expected = new Lexer(syntax, "").createTokens();
+		Lexer lexer = new Lexer(syntax, "");
+		for (Token expectedToken : expected) {
+			Token actualToken = lexer.nextToken();
+			assertEquals(expectedToken.type, actualToken.type);
+			assertEquals(expectedToken.content, actualToken.content);
+			assertSamePosition(expectedToken.syntaxPosition.getStartPos(), actualToken.syntaxPosition.getStartPos());
+		}
+		assertNull(lexer.nextToken());
+
+		// Tokens are lexed while parsing so the lexing error comes from the parser
+		assertThrows(CodeError.class, () -> new Parser(new Lexer("x = 1; y = #;", "")).parse());
+	}
+
+	static String readResource(String file) throws IOException {
+		try (InputStream stream = ArucasLexerTest.class.getResourceAsStream("/code/" + file)) {
+			assertNotNull(stream);
+			return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static void assertSameTokens(String syntax) throws CodeError {
+		List<Token> expected = new RegexLexer(syntax, "").createTokens();
+		List<Token> actual = new Lexer(syntax, "").createTokens();
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Token expectedToken = expected.get(i);
+			Token actualToken = actual.get(i);
+			assertEquals(expectedToken.type, actualToken.type);
+			assertEquals(expectedToken.content, actualToken.content);
+			// The regex lexer did not move the index of the end position
+			assertEquals(expectedToken.syntaxPosition.getStartPos().index, actualToken.syntaxPosition.getStartPos().index);
+			assertSamePosition(expectedToken.syntaxPosition.getStartPos(), actualToken.syntaxPosition.getStartPos());
+			assertSamePosition(expectedToken.syntaxPosition.getEndPos(), actualToken.syntaxPosition.getEndPos());
+		}
+	}
+
+	private static void assertSamePosition(Position expected, Position actual) {
+		assertEquals(expected.line, actual.line);
+		assertEquals(expected.column, actual.column);
+	}
+}
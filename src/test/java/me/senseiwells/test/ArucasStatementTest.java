@@ -1,9 +1,24 @@
 package me.senseiwells.test;
 
+import me.senseiwells.arucas.api.ISyntax;
+import me.senseiwells.arucas.core.Optimiser;
+import me.senseiwells.arucas.nodes.BinaryOperatorNode;
+import me.senseiwells.arucas.nodes.Node;
+import me.senseiwells.arucas.nodes.NumberNode;
 import me.senseiwells.arucas.throwables.CodeError;
 import me.senseiwells.arucas.throwables.RuntimeError;
+import me.senseiwells.arucas.tokens.Token;
+import me.senseiwells.arucas.utils.ArucasValueList;
+import me.senseiwells.arucas.values.NumberValue;
+import me.senseiwells.arucas.values.StringValue;
 import org.junit.Test;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertEquals;
 
@@ -71,6 +86,29 @@ public class ArucasStatementTest {
 			}
 			""", "X"
 		));
+		assertEquals("12", ArucasHelper.runSafeFull(
+			"""
+			X = 0;
+			for (i = 0; i < 6; i = i + 1) {
+				a = i;
+				if (a > 0) {
+					b = a;
+					try {
+						c = b;
+						if (c == 5) {
+							break;
+						}
+						if (c == 1 || c == 3) {
+							continue;
+						}
+					}
+					catch (e) { }
+				}
+				X = X + a + i;
+			}
+			""", "X"
+		));
+		assertEquals("5", ArucasHelper.runSafe("fun f() { foreach (i : [1, 2]) { a = i; if (true) { b = a; return 5; } } } X = f(); return X;"));
 	}
 
 	@Test
@@ -83,14 +121,47 @@ public class ArucasStatementTest {
 				X = X + number;
 			""", "X"
 		));
+		assertEquals("[\"1\", \"2\", \"3\", \"1\", \"2\", \"3\"]", ArucasHelper.runSafeFull(
+			"""
+			X = [1, 2, 3];
+			foreach (number : X)
+				X.append(number);
+			""", "X"
+		));
 	}
-	
+
 	@Test(timeout = 1000)
 	public void testScopeStatementScope() {
 		assertEquals("1", ArucasHelper.runSafe("X='0'; { X='1'; } return X;"));
 		assertThrows(CodeError.class, () -> ArucasHelper.compile("{ X='1'; } return X;"));
 		assertEquals("0", ArucasHelper.runSafe("X='0'; { (fun(){X='1';})(); } return X;"));
-		
+
+	}
+
+	@Test(timeout = 1000)
+	public void testFunctionLocalScope() {
+		assertEquals("2", ArucasHelper.runSafeFull("X = 0; fun f() { { X = 1; { X = X + 1; } } } f();", "X"));
+		assertEquals("6", ArucasHelper.runSafe("fun f(n) { Y = n; { Y = Y + 1; { Y = Y * 2; } } return Y; } return f(2);"));
+		assertEquals("3", ArucasHelper.runSafe("fun f(n) { foreach (i : [1, 2]) { n = n + i; } return n; } return f(0);"));
+	}
+	
+	@Test(timeout = 1000)
+	public void testLoopsInFunctions() {
+		String syntax = """
+			fun sum(list) {
+				total = 0;
+				foreach (number : list) {
+					if (number == 2) continue;
+					total = total + number;
+				}
+				return total;
+			}
+			X = 0;
+			for (i = 0; i < 5; i = i + 1) {
+				X = X + sum([i, i + 1, i + 2]);
+			}
+			""";
+		assertEquals("39", ArucasHelper.runSafeFull(syntax, "X"));
 	}
 	
 	@Test(timeout = 1000)
@@ -106,6 +177,89 @@ public class ArucasStatementTest {
 		));
 	}
 	
+	@Test
+	public void testNumberOperations() {
+		assertEquals("4950", ArucasHelper.runSafeFull("X = 0; for (i = 0; i < 100; i = i + 1) X = X + i;", "X"));
+		assertEquals("0.5", ArucasHelper.runSafe("return 1 / 2;"));
+		assertEquals("-0", ArucasHelper.runSafe("return 0 * -1;"));
+		assertEquals("true", ArucasHelper.runSafe("return 2000 + 1 == 2001 && 2 ^ 3 >= 8;"));
+		assertSame(NumberValue.of(10), NumberValue.of(5 + 5));
+		assertNotSame(NumberValue.of(0), NumberValue.of(-0.0));
+	}
+
+	@Test
+	public void testConstantFolding() {
+		Node sum = new BinaryOperatorNode(number("1"), new Token(Token.Type.PLUS, "+", ISyntax.empty()), number("2"));
+		assertEquals(NumberValue.of(3), new Optimiser().optimise(sum).getConstant());
+		Node invalid = new BinaryOperatorNode(number("1"), new Token(Token.Type.AND, "&&", ISyntax.empty()), number("2"));
+		assertNull(new Optimiser().optimise(invalid).getConstant());
+		assertEquals("true", ArucasHelper.runSafe("return 1 + 2 * 3 == 7 && 'a' + 'b' == 'ab';"));
+		assertEquals("1", ArucasHelper.runSafeFull("X = 0; if (false) X = 2; else X = 1; while (false) X = 3;", "X"));
+		assertThrows(RuntimeError.class, () -> ArucasHelper.runUnsafe("return 1 + 'a';"));
+	}
+
+	private static Node number(String content) {
+		return new NumberNode(new Token(Token.Type.NUMBER, content, ISyntax.empty()));
+	}
+
+	@Test
+	public void testNumberList() {
+		ArucasValueList list = new ArucasValueList();
+		list.addAll(List.of(NumberValue.of(1), NumberValue.of(2.5)));
+		list.add(1, NumberValue.of(-3));
+		assertTrue(list.isNumberList());
+		assertEquals(NumberValue.of(2.5), list.get(2));
+		assertTrue(list.contains(NumberValue.of(-3)));
+		list.add(new StringValue("a"));
+		assertFalse(list.isNumberList());
+		assertEquals(List.of(NumberValue.of(1), NumberValue.of(-3), NumberValue.of(2.5), new StringValue("a")), list);
+		assertEquals("[\"1\", \"a\", \"3\", \"4\"]", ArucasHelper.runSafeFull("X = [1, 2]; X.append('a'); X.remove(1); X.concat([3, 4]);", "X"));
+	}
+
+	@Test
+	public void testValueListBulkChanges() {
+		ArucasValueList list = new ArucasValueList();
+		list.addAll(List.of(NumberValue.of(1), NumberValue.of(2), NumberValue.of(3), NumberValue.of(4)));
+		assertTrue(list.removeIf(value -> value.equals(NumberValue.of(2))));
+		list.removeAll(List.of(NumberValue.of(4)));
+		assertEquals(List.of(NumberValue.of(1), NumberValue.of(3)), list);
+		list.sort((a, b) -> Double.compare(((NumberValue) b).value, ((NumberValue) a).value));
+		assertEquals(List.of(NumberValue.of(3), NumberValue.of(1)), list);
+		list.replaceAll(value -> value.equals(NumberValue.of(3)) ? new StringValue("a") : value);
+		assertFalse(list.isNumberList());
+		assertEquals(List.of(new StringValue("a"), NumberValue.of(1)), list);
+		list.retainAll(List.of(NumberValue.of(1)));
+		assertEquals(List.of(NumberValue.of(1)), list);
+		list.addAll(List.of(NumberValue.of(2), NumberValue.of(3)));
+		list.subList(0, 2).clear();
+		assertEquals(List.of(NumberValue.of(3)), list);
+		assertThrows(UnsupportedOperationException.class, () -> {
+			Iterator<?> iterator = list.iterator();
+			iterator.next();
+			iterator.remove();
+		});
+	}
+
+	@Test
+	public void testValueListCallbacksRunOutsideLock() {
+		ArucasValueList list = new ArucasValueList();
+		list.addAll(List.of(NumberValue.of(1), NumberValue.of(2), NumberValue.of(3)));
+		AtomicBoolean changed = new AtomicBoolean();
+		// The predicate changes the list from another thread, this would deadlock if the lock was held
+		assertTrue(list.removeIf(value -> {
+			if (!changed.getAndSet(true)) {
+				CompletableFuture.runAsync(() -> list.add(NumberValue.of(2))).orTimeout(5, TimeUnit.SECONDS).join();
+			}
+			return value.equals(NumberValue.of(2));
+		}));
+		assertEquals(List.of(NumberValue.of(1), NumberValue.of(3)), list);
+		list.sort((a, b) -> {
+			assertEquals(2, CompletableFuture.supplyAsync(list::size).orTimeout(5, TimeUnit.SECONDS).join().intValue());
+			return Double.compare(((NumberValue) b).value, ((NumberValue) a).value);
+		});
+		assertEquals(List.of(NumberValue.of(3), NumberValue.of(1)), list);
+	}
+
 	@Test
 	public void testCallStatementNonFunction() {
 		assertThrows(RuntimeError.class, () -> ArucasHelper.runUnsafeFull("X = 3; X();", "X"));